@@ -0,0 +1,125 @@
+package info.jab.demo.benchmarks;
+
+import info.jab.demo.scan.PathFilter;
+import info.jab.demo.scan.ScanIndex;
+import info.jab.demo.scan.ScanListener;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+import info.jab.demo.scan.TestScanner;
+import info.jab.demo.scan.TestSourceInspector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the ways the plugin can count the tests of a tree.
+ *
+ * {@link #filesWalk()} is the original {@code Files.walk} implementation of the enhance
+ * goal and serves as the baseline. The other benchmarks run {@link TestScanner} without
+ * an index (a clean build), with a fully warm index (an unchanged tree between builds),
+ * on one thread and on one thread per processor, and with test method counting.
+ *
+ * Run with {@code java -jar benchmarks/target/benchmarks.jar}; the tree size and depth
+ * can be narrowed with {@code -p files=10000 -p depth=4}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScanBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int files;
+
+    @Param({"2", "6"})
+    private int depth;
+
+    private Path root;
+    private ScanIndex warmIndex;
+
+    @Setup(Level.Trial)
+    public void createTree() throws IOException {
+        root = Files.createTempDirectory("pot-bench");
+        SyntheticTestTree.generate(root, files, depth);
+        TestScanner scanner = new TestScanner(ScanIndex.empty(), ScanListener.NONE, 1);
+        scanner.scan(root);
+        warmIndex = scanner.getIndex();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        SyntheticTestTree.delete(root);
+    }
+
+    @Benchmark
+    public TestCountResult filesWalk() throws IOException {
+        int unit = 0;
+        int integration = 0;
+        int e2e = 0;
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                TestKind kind = TestKind.classify(path.getFileName().toString());
+                if (kind == TestKind.UNIT) {
+                    unit++;
+                } else if (kind == TestKind.INTEGRATION) {
+                    integration++;
+                } else if (kind == TestKind.E2E) {
+                    e2e++;
+                }
+            }
+        }
+        return new TestCountResult(unit, integration, e2e, TestMethodCounts.EMPTY);
+    }
+
+    @Benchmark
+    public TestCountResult sequentialScan() throws IOException {
+        return new TestScanner(ScanIndex.empty(), ScanListener.NONE, 1).scan(root).getCounts();
+    }
+
+    @Benchmark
+    public TestCountResult parallelScan() throws IOException {
+        return new TestScanner(ScanIndex.empty(), ScanListener.NONE, 0).scan(root).getCounts();
+    }
+
+    @Benchmark
+    public TestCountResult cachedScan() throws IOException {
+        return new TestScanner(warmIndex, ScanListener.NONE, 1).scan(root).getCounts();
+    }
+
+    @Benchmark
+    public TestCountResult cachedParallelScan() throws IOException {
+        return new TestScanner(warmIndex, ScanListener.NONE, 0).scan(root).getCounts();
+    }
+
+    @Benchmark
+    public TestCountResult sequentialScanCountingMethods() throws IOException {
+        return new TestScanner(ScanIndex.empty(), PathFilter.defaults(), ScanListener.NONE, 1,
+            new TestSourceInspector()).scan(root).getCounts();
+    }
+
+    @Benchmark
+    public TestCountResult parallelScanCountingMethods() throws IOException {
+        return new TestScanner(ScanIndex.empty(), PathFilter.defaults(), ScanListener.NONE, 0,
+            new TestSourceInspector()).scan(root).getCounts();
+    }
+}
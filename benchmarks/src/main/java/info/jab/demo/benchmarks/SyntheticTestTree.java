@@ -0,0 +1,122 @@
+package info.jab.demo.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Generates a test source tree of a given size and depth for the scanning benchmarks.
+ *
+ * Files are spread over leaf directories of {@value #FILES_PER_DIRECTORY} files each,
+ * with the fan-out of the intermediate levels chosen so the tree reaches the requested
+ * depth. Names follow a fixed mix: one in ten files is an integration test, one in
+ * twenty-five an end-to-end test, one in three a helper class and the rest unit tests.
+ */
+final class SyntheticTestTree {
+    static final int FILES_PER_DIRECTORY = 20;
+
+    private static final String SOURCE = "package bench;\n\n"
+        + "import org.junit.jupiter.api.Test;\n\n"
+        + "class Generated {\n"
+        + "    // @Test in a comment is not counted\n"
+        + "    @Test\n"
+        + "    void first() {\n"
+        + "        String s = \"@Test\";\n"
+        + "    }\n\n"
+        + "    @Test\n"
+        + "    void second() {\n"
+        + "    }\n"
+        + "}\n";
+
+    private SyntheticTestTree() {
+    }
+
+    /**
+     * Writes the tree below a root directory and backdates all directories, so a scan
+     * index written afterwards treats every directory as unchanged.
+     *
+     * @param root  the root directory, created if needed
+     * @param files the number of files to create
+     * @param depth the number of directory levels below the root
+     * @throws IOException if the tree cannot be written
+     */
+    static void generate(Path root, int files, int depth) throws IOException {
+        if (files <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Files and depth must be positive: " + files + ", " + depth);
+        }
+        int leaves = (files + FILES_PER_DIRECTORY - 1) / FILES_PER_DIRECTORY;
+        int fanOut = Math.max(2, (int) Math.ceil(Math.pow(leaves, 1.0 / depth)));
+
+        Path directory = null;
+        for (int i = 0; i < files; i++) {
+            if (i % FILES_PER_DIRECTORY == 0) {
+                directory = Files.createDirectories(leafDirectory(root, i / FILES_PER_DIRECTORY, fanOut, depth));
+            }
+            Files.writeString(directory.resolve(fileName(i)), SOURCE);
+        }
+        backdateDirectories(root);
+    }
+
+    /**
+     * Deletes a tree written by {@link #generate(Path, int, int)}.
+     *
+     * @param root the root directory
+     * @throws IOException if the tree cannot be deleted
+     */
+    static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Path leafDirectory(Path root, int leaf, int fanOut, int depth) {
+        Path directory = root;
+        int remaining = leaf;
+        for (int level = 0; level < depth; level++) {
+            directory = directory.resolve("pkg" + remaining % fanOut);
+            remaining /= fanOut;
+        }
+        return directory;
+    }
+
+    private static String fileName(int i) {
+        if (i % 25 == 0) {
+            return "Case" + i + "E2E.java";
+        } else if (i % 10 == 0) {
+            return "Case" + i + "IT.java";
+        } else if (i % 3 == 0) {
+            return "Helper" + i + ".java";
+        }
+        return "Case" + i + "Test.java";
+    }
+
+    private static void backdateDirectories(Path root) throws IOException {
+        FileTime past = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.setLastModifiedTime(dir, past);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
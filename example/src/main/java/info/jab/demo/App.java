@@ -2,10 +2,20 @@ package info.jab.demo;
 
 import info.jab.demo.http.HttpClient;
 import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
+import info.jab.demo.model.FruitSnapshot;
 import info.jab.demo.service.FruitService;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Main application class for the Fruit Demo.
@@ -14,18 +24,31 @@ public class App {
     // Default service URL (can be overridden through command line args)
     private static final String DEFAULT_SERVICE_URL = "https://example.com/api/fruits";
     
+    /**
+     * System property naming the snapshot file used for warm starts; unset disables snapshots.
+     */
+    public static final String SNAPSHOT_PROPERTY = "fruit.snapshot";
+    
+    // How long to wait for a background snapshot refresh once the saved catalog is printed
+    private static final Duration REFRESH_WAIT = Duration.ofSeconds(2);
+    
     public static void main(String[] args) {
         try {
             String serviceUrl = args.length > 0 ? args[0] : DEFAULT_SERVICE_URL;
             System.out.println("Fetching fruits from: " + serviceUrl);
             
             // Create dependencies
-            HttpClient httpClient = new HttpClient();
+            HttpClient httpClient = HttpClient.create();
             FruitService fruitService = new FruitService(httpClient, serviceUrl);
             
             // Run application
             App app = new App();
-            app.run(fruitService);
+            String snapshot = System.getProperty(SNAPSHOT_PROPERTY);
+            if (snapshot == null || snapshot.isBlank()) {
+                app.run(fruitService);
+            } else {
+                app.run(fruitService, Path.of(snapshot));
+            }
         } catch (IOException e) {
             System.err.println("Error fetching fruit data: " + e.getMessage());
             System.exit(1);
@@ -44,14 +67,93 @@ public class App {
      */
     public void run(FruitService fruitService) throws IOException {
         List<Fruit> fruits = fruitService.getAllFruits();
+        print(fruits, fruitService.findByName("apple"));
+    }
+    
+    /**
+     * Runs the application from a local snapshot of the catalog when there is one.
+     * 
+     * A valid snapshot is printed straight away while the catalog is fetched again in the
+     * background and written back to the snapshot; if that refresh fails, the output from
+     * the snapshot stands and only a warning is printed. The refresh is waited for at most
+     * two seconds after printing, so a slow service cannot hold up the exit; a refresh cut
+     * short leaves the saved snapshot untouched, as snapshots are replaced atomically.
+     * Without a usable snapshot the catalog is fetched first and then saved as the snapshot.
+     *
+     * @param fruitService the fruit service to use
+     * @param snapshotFile the snapshot file
+     * @throws IOException if there is no usable snapshot and the catalog cannot be fetched
+     */
+    public void run(FruitService fruitService, Path snapshotFile) throws IOException {
+        FruitSnapshot snapshot = readSnapshot(snapshotFile);
+        if (snapshot == null) {
+            FruitCatalog catalog = fruitService.getCatalog();
+            print(catalog);
+            writeSnapshot(catalog, snapshotFile);
+            return;
+        }
         
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(() -> {
+            try {
+                FruitSnapshot.write(fruitService.getCatalog(), snapshotFile);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                System.out.println("Snapshot refreshed: " + snapshotFile);
+            } else {
+                Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                System.err.println("Could not refresh the snapshot, using the saved catalog: "
+                        + cause.getMessage());
+            }
+        });
+        System.out.println("Loaded snapshot " + snapshotFile);
+        print(snapshot.getCatalog());
+        try {
+            refresh.get(REFRESH_WAIT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Snapshot refresh still running after " + REFRESH_WAIT.toMillis()
+                    + " ms, using the saved catalog");
+        } catch (ExecutionException e) {
+            // Already reported when the refresh completed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static FruitSnapshot readSnapshot(Path snapshotFile) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try {
+            return FruitSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private static void writeSnapshot(FruitCatalog catalog, Path snapshotFile) {
+        try {
+            FruitSnapshot.write(catalog, snapshotFile);
+        } catch (IOException e) {
+            System.err.println("Could not write the snapshot: " + e.getMessage());
+        }
+    }
+    
+    private static void print(FruitCatalog catalog) {
+        int apple = catalog.indexOfName("apple");
+        print(catalog.asList(), apple < 0 ? null : catalog.get(apple));
+    }
+    
+    private static void print(List<Fruit> fruits, Fruit apple) {
         System.out.println("Found " + fruits.size() + " fruits:");
         for (Fruit fruit : fruits) {
             System.out.println(" - " + fruit.getName() + " (" + fruit.getColor() + ", " + fruit.getWeight() + "g)");
         }
         
         // Example of finding a specific fruit
-        Fruit apple = fruitService.findByName("apple");
         if (apple != null) {
             System.out.println("\nFound apple: " + apple);
         } else {
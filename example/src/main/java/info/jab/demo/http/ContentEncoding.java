@@ -0,0 +1,95 @@
+package info.jab.demo.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Negotiates compressed responses and decodes them as streams.
+ *
+ * Bodies are decompressed while they are read, so a parser consumes the decoded bytes as
+ * they arrive instead of waiting for a fully decompressed buffer. {@code deflate} is
+ * accepted both as specified, zlib-wrapped, and as the raw deflate data some servers send.
+ */
+final class ContentEncoding {
+
+    /**
+     * Value of the {@code Accept-Encoding} request header.
+     */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Wraps a response body so that it is decoded as it is read.
+     *
+     * @param encoding the {@code Content-Encoding} header, or null
+     * @param body     the body as received
+     * @return the decoded body; an empty body is returned as is
+     * @throws IOException if the encoding is not supported or the body cannot be read
+     */
+    static InputStream decode(String encoding, InputStream body) throws IOException {
+        String coding = encoding == null ? "identity" : encoding.trim().toLowerCase(Locale.ROOT);
+        if (coding.isEmpty() || coding.equals("identity")) {
+            return body;
+        }
+        if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("deflate")) {
+            body.close();
+            throw new IOException("Unsupported content encoding: " + encoding);
+        }
+
+        // Peek at the first bytes: empty bodies have no header, and deflate needs sniffing
+        PushbackInputStream in = new PushbackInputStream(body, 2);
+        int first = in.read();
+        if (first < 0) {
+            return in;
+        }
+        int second = in.read();
+        if (second >= 0) {
+            in.unread(second);
+        }
+        in.unread(first);
+
+        if (!coding.equals("deflate")) {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return new OwnedInflaterInputStream(in, new Inflater(!isZlibHeader(first, second)));
+    }
+
+    /**
+     * Tells whether two bytes form a zlib header: deflate compression and a valid check value.
+     */
+    static boolean isZlibHeader(int cmf, int flg) {
+        return flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    /**
+     * Inflater stream that releases the native memory of its inflater when closed.
+     */
+    private static final class OwnedInflaterInputStream extends InflaterInputStream {
+        private boolean closed;
+
+        OwnedInflaterInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        }
+    }
+}
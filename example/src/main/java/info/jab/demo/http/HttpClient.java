@@ -1,19 +1,39 @@
 package info.jab.demo.http;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple HTTP client for making web requests.
+ * Opens one {@link HttpURLConnection} per request; see {@link PooledHttpClient} for a
+ * transport that keeps connections alive between requests.
+ * Responses are requested with gzip or deflate compression and decompressed while they are read.
  */
 public class HttpClient {
     
     private static final int CONNECT_TIMEOUT_MS = 5000;
     private static final int READ_TIMEOUT_MS = 5000;
+    private static final int MAX_BLOCKING_REQUESTS = 32;
+    
+    /**
+     * Creates a client for the transport selected by the {@value HttpTransport#PROPERTY} system property.
+     *
+     * @return a new client
+     */
+    public static HttpClient create() {
+        return HttpTransport.configured().newClient();
+    }
     
     /**
      * Performs a GET request to the specified URL.
@@ -27,22 +47,132 @@ public class HttpClient {
         HttpURLConnection connection = openConnection(url);
         
         try {
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
-            connection.setReadTimeout(READ_TIMEOUT_MS);
-            connection.setRequestProperty("Accept", "application/json");
-            
-            int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new IOException("HTTP GET request failed with error code: " + responseCode);
-            }
-            
+            sendRequest(connection, false);
             return readResponse(connection);
         } finally {
             connection.disconnect();
         }
     }
     
+    /**
+     * Performs a GET request and returns the response without reading its body.
+     * The caller must close the response; the connection stays open until then.
+     *
+     * @param urlString the URL to connect to
+     * @return the response, whose body is read from the connection as it arrives
+     * @throws IOException if an I/O error occurs or the response is not successful
+     */
+    public StreamedResponse open(String urlString) throws IOException {
+        return open(urlString, Map.of());
+    }
+    
+    /**
+     * Performs a GET request with additional request headers and returns the response
+     * without reading its body. The caller must close the response.
+     * 
+     * A {@code 304 Not Modified} answer to a conditional request, for example one built
+     * from {@link Validators#toRequestHeaders()}, is returned as a response with an empty body.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request
+     * @return the response, whose body is read from the connection as it arrives
+     * @throws IOException if an I/O error occurs or the response is neither successful nor not modified
+     */
+    public StreamedResponse open(String urlString, Map<String, String> requestHeaders) throws IOException {
+        URL url = new URL(urlString);
+        HttpURLConnection connection = openConnection(url);
+        
+        boolean opened = false;
+        try {
+            requestHeaders.forEach(connection::setRequestProperty);
+            int responseCode = sendRequest(connection, !requestHeaders.isEmpty());
+            InputStream body = connection.getInputStream();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                // Closing the empty body returns the connection to the keep-alive cache
+                body.close();
+                body = InputStream.nullInputStream();
+            } else {
+                body = ContentEncoding.decode(connection.getContentEncoding(), body);
+            }
+            StreamedResponse response = new StreamedResponse(responseCode,
+                    connection.getHeaderFields(), body);
+            opened = true;
+            return response;
+        } finally {
+            if (!opened) {
+                connection.disconnect();
+            }
+        }
+    }
+    
+    /**
+     * Sends the GET request and checks the response code.
+     *
+     * @param connection       the connection to send the request on
+     * @param allowNotModified whether a 304 response is accepted
+     * @return the response code
+     * @throws IOException if an I/O error occurs or the response is not successful
+     */
+    private int sendRequest(HttpURLConnection connection, boolean allowNotModified) throws IOException {
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setRequestProperty("Accept", "application/json");
+        connection.setRequestProperty("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        
+        int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_OK
+                && !(allowNotModified && responseCode == HttpURLConnection.HTTP_NOT_MODIFIED)) {
+            throw new HttpStatusException(responseCode);
+        }
+        return responseCode;
+    }
+    
+    /**
+     * Performs a GET request without blocking the calling thread.
+     *
+     * This transport has no non-blocking I/O, so the request runs on a shared pool of at
+     * most {@value #MAX_BLOCKING_REQUESTS} daemon threads, and further requests wait for a
+     * free thread; {@link PooledHttpClient} overrides it with truly asynchronous I/O.
+     *
+     * @param urlString the URL to connect to
+     * @return a future completed with the response body, or exceptionally with the
+     *         {@link IOException} the request failed with
+     */
+    public CompletableFuture<String> getAsync(String urlString) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return get(urlString);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, BlockingExecutor.INSTANCE);
+    }
+    
+    /**
+     * Performs a GET request with additional request headers without blocking the calling
+     * thread, and reads the whole decoded body into memory before completing.
+     * 
+     * Like {@link #getAsync(String)}, this transport runs the request on the bounded pool
+     * of daemon threads; {@link PooledHttpClient} overrides it with truly asynchronous I/O.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request; a {@code 304 Not Modified}
+     *                       answer is only accepted when there are some
+     * @return a future completed with the response, whose body is already in memory, or
+     *         exceptionally with the {@link IOException} the request failed with
+     */
+    public CompletableFuture<StreamedResponse> openAsync(String urlString, Map<String, String> requestHeaders) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (StreamedResponse response = open(urlString, requestHeaders)) {
+                return new StreamedResponse(response.getStatusCode(), response.getHeaders(),
+                        new ByteArrayInputStream(response.getBody().readAllBytes()));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, BlockingExecutor.INSTANCE);
+    }
+    
     /**
      * Opens a connection to the given URL.
      * Protected for testing - allows override in tests for mocking.
@@ -63,16 +193,29 @@ public class HttpClient {
      * @throws IOException if an I/O error occurs
      */
     private String readResponse(HttpURLConnection connection) throws IOException {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-            StringBuilder response = new StringBuilder();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-            
-            return response.toString();
+        try (InputStream in = ContentEncoding.decode(connection.getContentEncoding(), connection.getInputStream())) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    /**
+     * Lazily created pool running the blocking requests of {@link #getAsync(String)} and
+     * {@link #openAsync(String, Map)}. It holds at most {@value #MAX_BLOCKING_REQUESTS}
+     * threads, which exit after a minute without work, so a burst of asynchronous calls
+     * queues up instead of starting a thread per request.
+     */
+    private static final class BlockingExecutor {
+        private static final ExecutorService INSTANCE = newExecutor();
+
+        private static ExecutorService newExecutor() {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_BLOCKING_REQUESTS, MAX_BLOCKING_REQUESTS,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "http-client-blocking");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package info.jab.demo.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request is answered with an unexpected HTTP status code.
+ */
+public class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    /**
+     * Creates the exception.
+     *
+     * @param statusCode the status code of the response
+     */
+    public HttpStatusException(int statusCode) {
+        super("HTTP GET request failed with error code: " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,54 @@
+package info.jab.demo.http;
+
+import java.util.Locale;
+
+/**
+ * Transports available for {@link HttpClient}.
+ */
+public enum HttpTransport {
+    /**
+     * One {@link java.net.HttpURLConnection} per request.
+     */
+    URL_CONNECTION,
+
+    /**
+     * A shared, pooled {@link java.net.http.HttpClient} preferring HTTP/2.
+     */
+    POOLED;
+
+    /**
+     * System property selecting the transport: {@code url-connection} or {@code pooled}.
+     */
+    public static final String PROPERTY = "fruit.http.transport";
+
+    /**
+     * Returns the transport selected by the {@value #PROPERTY} system property.
+     *
+     * @return the configured transport, {@link #URL_CONNECTION} if none is set
+     * @throws IllegalArgumentException if the property holds an unknown transport
+     */
+    public static HttpTransport configured() {
+        String value = System.getProperty(PROPERTY);
+        return value == null || value.isBlank() ? URL_CONNECTION : parse(value);
+    }
+
+    /**
+     * Parses a transport name, accepting both {@code pooled} and {@code POOLED} styles.
+     *
+     * @param value the transport name
+     * @return the transport
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static HttpTransport parse(String value) {
+        return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Creates a client using this transport.
+     *
+     * @return a new client
+     */
+    public HttpClient newClient() {
+        return this == POOLED ? new PooledHttpClient() : new HttpClient();
+    }
+}
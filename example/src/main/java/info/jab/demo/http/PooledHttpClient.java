@@ -0,0 +1,294 @@
+package info.jab.demo.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * HTTP client backed by a shared {@link java.net.http.HttpClient}.
+ *
+ * All instances created with the default constructor share one underlying client, so
+ * connections are pooled and kept alive across calls instead of being opened and torn
+ * down per request. HTTP/2 is preferred: over TLS it is negotiated with ALPN and many
+ * requests to the same host are multiplexed over a single connection; servers that only
+ * speak HTTP/1.1 are served over pooled keep-alive connections. Responses are requested
+ * with gzip or deflate compression; streamed bodies are decompressed while they are read.
+ *
+ * {@link #getAsync(String)} and {@link #openAsync(String, Map)} use the non-blocking I/O of
+ * the underlying client throughout, so no thread is held while the server answers or the
+ * body arrives: the body is collected as bytes and decompressed in a mapping stage once it
+ * is complete, which briefly holds both the compressed and the decoded copy.
+ */
+public class PooledHttpClient extends HttpClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(5000);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(5000);
+
+    /**
+     * Collects the body of a successful response and decodes its {@code Content-Encoding}
+     * without blocking; the body of any other response is discarded.
+     */
+    static final HttpResponse.BodyHandler<byte[]> DECODED_BODY = responseInfo -> {
+        if (responseInfo.statusCode() != 200) {
+            return HttpResponse.BodySubscribers.replacing(new byte[0]);
+        }
+        String encoding = responseInfo.headers().firstValue("Content-Encoding").orElse(null);
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofByteArray(),
+            body -> decode(encoding, body));
+    };
+
+    private final java.net.http.HttpClient client;
+
+    /**
+     * Creates a client using the shared, pooled connection client.
+     */
+    public PooledHttpClient() {
+        this(SharedClient.INSTANCE);
+    }
+
+    /**
+     * Creates a client on top of the given connection client.
+     *
+     * @param client the client that owns the connection pool
+     */
+    public PooledHttpClient(java.net.http.HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Performs a GET request to the specified URL.
+     *
+     * @param urlString the URL to connect to
+     * @return the response body as a String
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public String get(String urlString) throws IOException {
+        return readBody(sendStreaming(newRequest(urlString)));
+    }
+
+    /**
+     * Performs a GET request with additional request headers and returns the response
+     * without reading its body. The caller must close the response to release the pooled connection.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request
+     * @return the response, empty if it is a {@code 304 Not Modified} answer to a conditional request
+     * @throws IOException if an I/O error occurs or the response is neither successful nor not modified
+     */
+    @Override
+    public StreamedResponse open(String urlString, Map<String, String> requestHeaders) throws IOException {
+        HttpResponse<InputStream> response = sendStreaming(newRequest(urlString, requestHeaders));
+
+        int responseCode = response.statusCode();
+        if (responseCode != 200 && !(responseCode == 304 && !requestHeaders.isEmpty())) {
+            response.body().close();
+            throw new HttpStatusException(responseCode);
+        }
+        InputStream body = response.body();
+        if (responseCode == 200) {
+            body = ContentEncoding.decode(response.headers().firstValue("Content-Encoding").orElse(null), body);
+        }
+        return new StreamedResponse(responseCode, response.headers().map(), body);
+    }
+
+    /**
+     * Performs a GET request with non-blocking I/O.
+     *
+     * @param urlString the URL to connect to
+     * @return a future completed with the response body, or exceptionally with the
+     *         {@link IOException} the request failed with
+     */
+    @Override
+    public CompletableFuture<String> getAsync(String urlString) {
+        HttpRequest request;
+        try {
+            request = newRequest(urlString);
+        } catch (MalformedURLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendAsync(request).handle((response, failure) -> {
+            if (failure != null) {
+                throw unwrap(failure);
+            }
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new HttpStatusException(response.statusCode()));
+            }
+            return new String(response.body(), StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Performs a GET request with additional request headers with non-blocking I/O.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request; a {@code 304 Not Modified}
+     *                       answer is only accepted when there are some
+     * @return a future completed with the response, whose body is already decoded in memory,
+     *         or exceptionally with the {@link IOException} the request failed with
+     */
+    @Override
+    public CompletableFuture<StreamedResponse> openAsync(String urlString, Map<String, String> requestHeaders) {
+        HttpRequest request;
+        try {
+            request = newRequest(urlString, requestHeaders);
+        } catch (MalformedURLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return sendAsync(request).handle((response, failure) -> {
+            if (failure != null) {
+                throw unwrap(failure);
+            }
+            int responseCode = response.statusCode();
+            if (responseCode != 200 && !(responseCode == 304 && !requestHeaders.isEmpty())) {
+                throw new CompletionException(new HttpStatusException(responseCode));
+            }
+            return new StreamedResponse(responseCode, response.headers().map(),
+                new ByteArrayInputStream(response.body()));
+        });
+    }
+
+    /**
+     * Decodes a complete body.
+     *
+     * @param encoding the {@code Content-Encoding} header, or null
+     * @param body     the body as received
+     * @return the decoded body
+     * @throws UncheckedIOException if the encoding is not supported or the body is corrupt
+     */
+    private static byte[] decode(String encoding, byte[] body) {
+        try (InputStream in = ContentEncoding.decode(encoding, new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the failure of an asynchronous exchange as callers see it, with a body that
+     * could not be decoded failing with its {@link IOException}.
+     *
+     * @param failure the failure the exchange completed with
+     * @return the exception to complete the caller's future with
+     */
+    private static CompletionException unwrap(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure;
+        if (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Reads a whole successful body, decompressing it while it is read.
+     *
+     * @param response the response with its body as a stream
+     * @return the decoded body
+     * @throws IOException if an I/O error occurs or the response is not successful
+     */
+    private static String readBody(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream body = response.body()) {
+            int responseCode = response.statusCode();
+            if (responseCode != 200) {
+                throw new HttpStatusException(responseCode);
+            }
+            String encoding = response.headers().firstValue("Content-Encoding").orElse(null);
+            try (InputStream in = ContentEncoding.decode(encoding, body)) {
+                return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    /**
+     * Sends a request on the pooled client and returns as soon as the headers have arrived.
+     * Protected for testing - allows override in tests for mocking.
+     *
+     * @param request the request to send
+     * @return the response with its body as a stream
+     * @throws IOException if an I/O error occurs or the calling thread is interrupted
+     */
+    protected HttpResponse<InputStream> sendStreaming(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("HTTP GET request interrupted: " + request.uri());
+        }
+    }
+
+    /**
+     * Sends a request on the pooled client without blocking.
+     * Protected for testing - allows override in tests for mocking.
+     *
+     * @param request the request to send
+     * @return a future completed with the response once its whole body has arrived, with
+     *         the body decoded by {@link #DECODED_BODY}
+     */
+    protected CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+        return client.sendAsync(request, DECODED_BODY);
+    }
+
+    /**
+     * Builds the GET request for a URL.
+     *
+     * @param urlString the URL to connect to
+     * @return the request
+     * @throws MalformedURLException if the URL is invalid
+     */
+    HttpRequest newRequest(String urlString) throws MalformedURLException {
+        return newRequest(urlString, Map.of());
+    }
+
+    /**
+     * Builds the GET request for a URL with additional headers.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request
+     * @return the request
+     * @throws MalformedURLException if the URL is invalid
+     */
+    HttpRequest newRequest(String urlString, Map<String, String> requestHeaders) throws MalformedURLException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(toUri(urlString))
+            .GET()
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .header("Accept-Encoding", ContentEncoding.ACCEPT_ENCODING);
+        requestHeaders.forEach(builder::header);
+        return builder.build();
+    }
+
+    private static URI toUri(String urlString) throws MalformedURLException {
+        try {
+            return new URL(urlString).toURI();
+        } catch (URISyntaxException e) {
+            MalformedURLException exception = new MalformedURLException(e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    /**
+     * Lazily created client shared by all default instances.
+     */
+    private static final class SharedClient {
+        private static final java.net.http.HttpClient INSTANCE = java.net.http.HttpClient.newBuilder()
+            .version(java.net.http.HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(java.net.http.HttpClient.Redirect.NEVER)
+            .build();
+    }
+}
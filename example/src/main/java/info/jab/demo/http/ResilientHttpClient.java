@@ -0,0 +1,475 @@
+package info.jab.demo.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP client that retries, hedges and bounds the requests of another client.
+ *
+ * Every call has a deadline budget shared by all of its attempts. A failed attempt is
+ * retried after an exponential backoff with full jitter if the failure is transient: an
+ * I/O error, a timeout, or a 408, 429 or 5xx status. With hedging enabled, a second
+ * attempt is started when the first one has not answered after the 95th percentile of the
+ * recent response times, and whichever succeeds first is used; the other one is
+ * interrupted, and a response it still returns is closed.
+ *
+ * Attempts run on a shared pool of daemon threads so that the caller can give up on a
+ * slow attempt when the budget is spent. {@link #getAsync(String)} runs the whole call,
+ * retries included, off the calling thread.
+ */
+public class ResilientHttpClient extends HttpClient {
+
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final HttpClient delegate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final long deadlineNanos;
+    private final long initialHedgeDelayNanos;
+    private final LatencyTracker latencies = new LatencyTracker(LATENCY_SAMPLES);
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+
+    /**
+     * A single attempt of a call.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface Attempt<T> {
+        T run() throws IOException;
+    }
+
+    private ResilientHttpClient(Builder builder) {
+        this.delegate = builder.delegate;
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffNanos = builder.initialBackoff.toNanos();
+        this.maxBackoffNanos = builder.maxBackoff.toNanos();
+        this.deadlineNanos = builder.deadline.toNanos();
+        this.initialHedgeDelayNanos = builder.hedgeDelay == null ? -1 : builder.hedgeDelay.toNanos();
+    }
+
+    /**
+     * Starts the configuration of a resilient client.
+     *
+     * @param delegate the client that performs the single attempts
+     * @return a builder with 3 attempts, a 100 ms initial and 2 s maximum backoff, a
+     *         10 s deadline and no hedging
+     */
+    public static Builder builder(HttpClient delegate) {
+        return new Builder(delegate);
+    }
+
+    /**
+     * Performs a GET request, retrying and hedging it within the deadline budget.
+     *
+     * @param urlString the URL to connect to
+     * @return the response body as a String
+     * @throws IOException if the last attempt fails, the failure is not transient or the
+     *         deadline is exceeded
+     */
+    @Override
+    public String get(String urlString) throws IOException {
+        return call(urlString, () -> delegate.get(urlString), body -> { });
+    }
+
+    /**
+     * Performs a GET request with additional request headers, retrying and hedging it
+     * within the deadline budget. Only the request that produces the returned response is
+     * left open.
+     * 
+     * The deadline budget and the response time sampled for hedging end once the response
+     * headers have arrived: the body is read by the caller afterwards, outside the budget,
+     * and a slow body neither fails the call nor delays later hedges.
+     *
+     * @param urlString      the URL to connect to
+     * @param requestHeaders the headers to add to the request
+     * @return the response, whose body is read from the connection as it arrives
+     * @throws IOException if the last attempt fails, the failure is not transient or the
+     *         deadline is exceeded
+     */
+    @Override
+    public StreamedResponse open(String urlString, Map<String, String> requestHeaders) throws IOException {
+        return call(urlString, () -> delegate.open(urlString, requestHeaders), ResilientHttpClient::closeQuietly);
+    }
+
+    /**
+     * Returns the number of attempts started after a failed attempt.
+     *
+     * @return the retry count
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of hedged attempts started because an attempt was slow.
+     *
+     * @return the hedge count
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the delay after which a second attempt is started: the 95th percentile of
+     * the recent successful attempts once enough of them are known, else the configured delay.
+     *
+     * @return the hedge delay in nanoseconds, or -1 if hedging is disabled
+     */
+    long hedgeDelayNanos() {
+        if (initialHedgeDelayNanos < 0) {
+            return -1;
+        }
+        long p95 = latencies.percentile(0.95, MIN_LATENCY_SAMPLES);
+        return p95 < 0 ? initialHedgeDelayNanos : p95;
+    }
+
+    /**
+     * Tells whether an attempt that failed with the given exception may succeed when repeated.
+     *
+     * @param failure the failure
+     * @return true for I/O errors, timeouts and 408, 429 and 5xx statuses
+     */
+    static boolean isRetryable(IOException failure) {
+        if (failure instanceof HttpStatusException) {
+            int statusCode = ((HttpStatusException) failure).getStatusCode();
+            return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+        }
+        return !(failure instanceof MalformedURLException) && !(failure instanceof UnknownHostException);
+    }
+
+    private <T> T call(String url, Attempt<T> attempt, Discard<T> discard) throws IOException {
+        long deadline = System.nanoTime() + deadlineNanos;
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return hedged(url, attempt, discard, deadline);
+            } catch (IOException e) {
+                if (!isRetryable(e) || attemptNumber >= maxAttempts || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                long backoff = backoffNanos(attemptNumber);
+                if (System.nanoTime() + backoff >= deadline) {
+                    throw e;
+                }
+                sleep(backoff, url);
+                retries.increment();
+            }
+        }
+    }
+
+    private <T> T hedged(String url, Attempt<T> attempt, Discard<T> discard, long deadline) throws IOException {
+        Call<T> call = new Call<>(attempt, discard);
+        call.launch();
+        int running = 1;
+        long hedgeDelay = hedgeDelayNanos();
+        boolean hedged = hedgeDelay < 0;
+        long hedgeAt = System.nanoTime() + hedgeDelay;
+        IOException failure = null;
+        try {
+            while (running > 0) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    throw deadlineExceeded(url, failure);
+                }
+                long wait = hedged ? deadline - now : Math.min(deadline, hedgeAt) - now;
+                Outcome<T> outcome = call.outcomes.poll(Math.max(wait, 0), TimeUnit.NANOSECONDS);
+                if (outcome == null) {
+                    if (!hedged && System.nanoTime() >= hedgeAt) {
+                        hedged = true;
+                        hedges.increment();
+                        call.launch();
+                        running++;
+                    }
+                    continue;
+                }
+                running--;
+                if (outcome.failure == null) {
+                    latencies.record(outcome.elapsedNanos);
+                    return outcome.result;
+                }
+                if (outcome.failure instanceof RuntimeException) {
+                    throw (RuntimeException) outcome.failure;
+                }
+                if (outcome.failure instanceof Error) {
+                    throw (Error) outcome.failure;
+                }
+                if (failure != null) {
+                    outcome.failure.addSuppressed(failure);
+                }
+                failure = (IOException) outcome.failure;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        } finally {
+            call.settle();
+        }
+    }
+
+    private IOException deadlineExceeded(String url, IOException failure) {
+        IOException exception = new IOException("Request to " + url + " exceeded the deadline of "
+            + TimeUnit.NANOSECONDS.toMillis(deadlineNanos) + " ms");
+        if (failure != null) {
+            exception.addSuppressed(failure);
+        }
+        return exception;
+    }
+
+    private long backoffNanos(int attemptNumber) {
+        long ceiling = initialBackoffNanos << Math.min(attemptNumber - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffNanos) {
+            ceiling = maxBackoffNanos;
+        }
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long nanos, String url) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // The response was never handed out
+        }
+    }
+
+    /**
+     * Releases a result that lost the race against another attempt.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    private interface Discard<T> {
+        void discard(T result);
+    }
+
+    /**
+     * The result or failure of one attempt, with the time since the first attempt of its
+     * try was launched.
+     */
+    private static final class Outcome<T> {
+        final T result;
+        final Throwable failure;
+        final long elapsedNanos;
+
+        Outcome(T result, Throwable failure, long elapsedNanos) {
+            this.result = result;
+            this.failure = failure;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    /**
+     * The attempts running for one try of a call. Once the call has settled, results that
+     * arrive late are discarded instead of being queued, so no response is leaked.
+     * 
+     * Durations are measured from the first launch, so a hedge that wins reports the time
+     * the caller waited rather than its own shorter run, which would pull the percentile
+     * that triggers hedging down with every hedge.
+     */
+    private static final class Call<T> {
+        final BlockingQueue<Outcome<T>> outcomes = new LinkedBlockingQueue<>();
+        private final Attempt<T> attempt;
+        private final Discard<T> discard;
+        private final List<Future<?>> running = new ArrayList<>(2);
+        private boolean settled;
+        private long firstLaunch;
+
+        Call(Attempt<T> attempt, Discard<T> discard) {
+            this.attempt = attempt;
+            this.discard = discard;
+        }
+
+        void launch() {
+            if (running.isEmpty()) {
+                firstLaunch = System.nanoTime();
+            }
+            long start = firstLaunch;
+            running.add(AttemptExecutor.INSTANCE.submit(() -> {
+                Outcome<T> outcome;
+                try {
+                    outcome = new Outcome<>(attempt.run(), null, System.nanoTime() - start);
+                } catch (Throwable e) {
+                    outcome = new Outcome<>(null, e, System.nanoTime() - start);
+                }
+                offer(outcome);
+            }));
+        }
+
+        private synchronized void offer(Outcome<T> outcome) {
+            if (!settled) {
+                outcomes.add(outcome);
+            } else if (outcome.failure == null) {
+                discard.discard(outcome.result);
+            }
+        }
+
+        void settle() {
+            synchronized (this) {
+                settled = true;
+                for (Outcome<T> outcome; (outcome = outcomes.poll()) != null; ) {
+                    if (outcome.failure == null) {
+                        discard.discard(outcome.result);
+                    }
+                }
+            }
+            for (Future<?> future : running) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Ring buffer of the most recent successful attempt durations.
+     */
+    static final class LatencyTracker {
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        LatencyTracker(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * Returns a percentile of the recorded durations.
+         *
+         * @param quantile   the quantile, between 0 and 1
+         * @param minSamples the number of samples needed for a meaningful answer
+         * @return the duration in nanoseconds, or -1 if there are fewer samples
+         */
+        long percentile(double quantile, int minSamples) {
+            long[] sorted;
+            synchronized (this) {
+                if (count < minSamples) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(samples, count);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+
+    /**
+     * Configures a {@link ResilientHttpClient}.
+     */
+    public static final class Builder {
+        private final HttpClient delegate;
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        private Duration deadline = Duration.ofSeconds(10);
+        private Duration hedgeDelay;
+
+        private Builder(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Sets the maximum number of attempts of a call, hedged attempts not included.
+         *
+         * @param maxAttempts the number of attempts, 1 to disable retries
+         * @return this builder
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Max attempts must be positive: " + maxAttempts);
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff bounds: the n-th retry waits a random time up to
+         * {@code initial * 2^(n-1)}, capped at {@code max}.
+         *
+         * @param initial the backoff ceiling of the first retry
+         * @param max     the largest backoff ceiling
+         * @return this builder
+         */
+        public Builder backoff(Duration initial, Duration max) {
+            if (initial.isNegative() || max.compareTo(initial) < 0) {
+                throw new IllegalArgumentException("Invalid backoff: " + initial + " to " + max);
+            }
+            this.initialBackoff = initial;
+            this.maxBackoff = max;
+            return this;
+        }
+
+        /**
+         * Sets the time budget of a call, shared by all of its attempts and backoffs.
+         *
+         * @param deadline the budget
+         * @return this builder
+         */
+        public Builder deadline(Duration deadline) {
+            if (deadline.isNegative() || deadline.isZero()) {
+                throw new IllegalArgumentException("Deadline must be positive: " + deadline);
+            }
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Enables hedged requests. The given delay is used until enough responses have been
+         * seen to derive it from their 95th percentile.
+         *
+         * @param initialDelay the hedge delay used at first
+         * @return this builder
+         */
+        public Builder hedgeAfter(Duration initialDelay) {
+            if (initialDelay.isNegative()) {
+                throw new IllegalArgumentException("Hedge delay must not be negative: " + initialDelay);
+            }
+            this.hedgeDelay = initialDelay;
+            return this;
+        }
+
+        public ResilientHttpClient build() {
+            return new ResilientHttpClient(this);
+        }
+    }
+
+    private static final class AttemptExecutor {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "http-client-attempt");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
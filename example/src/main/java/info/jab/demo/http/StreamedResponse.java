@@ -0,0 +1,80 @@
+package info.jab.demo.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A successful or not modified HTTP response whose body has not been read yet.
+ *
+ * The body is read straight from the connection, so callers can process it while it
+ * arrives instead of buffering it. Closing the response closes the body, which lets the
+ * transport reuse the connection once the body has been read to the end.
+ */
+public class StreamedResponse implements Closeable {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final InputStream body;
+
+    /**
+     * Creates a response.
+     *
+     * @param statusCode the HTTP status code
+     * @param headers    the response headers; names are matched case-insensitively and
+     *                   null names, such as the status line of {@link java.net.HttpURLConnection}, are ignored
+     * @param body       the response body
+     */
+    public StreamedResponse(int statusCode, Map<String, List<String>> headers, InputStream body) {
+        this.statusCode = statusCode;
+        Map<String, List<String>> copy = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null) {
+                copy.put(header.getKey(), List.copyOf(header.getValue()));
+            }
+        }
+        this.headers = Collections.unmodifiableMap(copy);
+        this.body = body;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Tells whether the server answered a conditional request with {@code 304 Not Modified},
+     * in which case the body is empty and the previously received content is still current.
+     *
+     * @return true for a 304 response
+     */
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the first value of a header.
+     *
+     * @param name the header name, matched case-insensitively
+     * @return the value, or null if the header is absent
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public InputStream getBody() {
+        return body;
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+}
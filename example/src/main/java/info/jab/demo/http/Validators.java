@@ -0,0 +1,63 @@
+package info.jab.demo.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The cache validators of a response, used to revalidate it with a conditional GET.
+ *
+ * Sending them back as {@code If-None-Match} and {@code If-Modified-Since} lets the server
+ * answer {@code 304 Not Modified} without a body when the resource has not changed.
+ */
+public final class Validators {
+    private final String etag;
+    private final String lastModified;
+
+    /**
+     * Creates validators.
+     *
+     * @param etag         the {@code ETag} of the response, or null
+     * @param lastModified the {@code Last-Modified} date of the response, or null
+     */
+    public Validators(String etag, String lastModified) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Reads the validators of a response.
+     *
+     * @param response the response
+     * @return the validators, or null if the response has neither an {@code ETag} nor a
+     *         {@code Last-Modified} header
+     */
+    public static Validators of(StreamedResponse response) {
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        return etag == null && lastModified == null ? null : new Validators(etag, lastModified);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the request headers that make a GET conditional on these validators.
+     *
+     * @return the {@code If-None-Match} and {@code If-Modified-Since} headers
+     */
+    public Map<String, String> toRequestHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        if (etag != null) {
+            headers.put("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            headers.put("If-Modified-Since", lastModified);
+        }
+        return headers;
+    }
+}
@@ -9,6 +9,8 @@ public class Fruit {
     private final String name;
     private final String color;
     private final double weight;
+    // Cached on first use like String.hashCode; 0 means not computed yet
+    private int hash;
     
     /**
      * Creates a new Fruit instance.
@@ -55,6 +57,7 @@ public class Fruit {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Fruit fruit = (Fruit) o;
+        if (hash != 0 && fruit.hash != 0 && hash != fruit.hash) return false;
         return Double.compare(fruit.weight, weight) == 0 &&
                Objects.equals(name, fruit.name) &&
                Objects.equals(color, fruit.color);
@@ -62,7 +65,15 @@ public class Fruit {
     
     @Override
     public int hashCode() {
-        return Objects.hash(name, color, weight);
+        int h = hash;
+        if (h == 0) {
+            // Same value as Objects.hash(name, color, weight), without boxing or a varargs array
+            h = 31 + Objects.hashCode(name);
+            h = 31 * h + Objects.hashCode(color);
+            h = 31 * h + Double.hashCode(weight);
+            hash = h;
+        }
+        return h;
     }
     
     @Override
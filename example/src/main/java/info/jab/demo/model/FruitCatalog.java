@@ -0,0 +1,406 @@
+package info.jab.demo.model;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, column-oriented catalog of fruits.
+ *
+ * Instead of one object per fruit, the catalog keeps three primitive columns: the names
+ * and colors as ids into dictionaries of their distinct values, and the weights as a
+ * {@code double[]}. A fruit then costs 16 bytes of heap, repeated names and colors are
+ * stored once, and scans over a column read contiguous memory. {@link Fruit} objects are
+ * only created on access, and share the dictionary strings.
+ *
+ * The columns are held as primitive buffers, so a catalog read from a {@link FruitSnapshot}
+ * serves them straight from the memory-mapped file instead of copying them to the heap.
+ */
+public final class FruitCatalog implements Iterable<Fruit> {
+    private final String[] names;
+    private final String[] colors;
+    private final Map<String, Integer> colorIds;
+    private final IntBuffer nameColumn;
+    private final IntBuffer colorColumn;
+    private final DoubleBuffer weightColumn;
+    private final int size;
+
+    private FruitCatalog(Builder builder) {
+        this(dictionary(builder.names), dictionary(builder.colors),
+            IntBuffer.wrap(Arrays.copyOf(builder.nameColumn, builder.size)),
+            IntBuffer.wrap(Arrays.copyOf(builder.colorColumn, builder.size)),
+            DoubleBuffer.wrap(Arrays.copyOf(builder.weightColumn, builder.size)));
+    }
+
+    /**
+     * Creates a catalog that takes ownership of the given dictionaries and columns, which
+     * hold one value per row between index 0 and their limit and are only read with
+     * absolute gets.
+     */
+    FruitCatalog(String[] names, String[] colors, IntBuffer nameColumn, IntBuffer colorColumn,
+                 DoubleBuffer weightColumn) {
+        this.names = names;
+        this.colors = colors;
+        this.colorIds = new HashMap<>(colors.length * 2);
+        for (int id = 0; id < colors.length; id++) {
+            colorIds.put(colors[id], id);
+        }
+        this.size = weightColumn.limit();
+        this.nameColumn = nameColumn;
+        this.colorColumn = colorColumn;
+        this.weightColumn = weightColumn;
+    }
+
+    /**
+     * Starts an empty catalog.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    /**
+     * Builds a catalog of the given fruits, in iteration order.
+     *
+     * @param fruits the fruits
+     * @return the catalog
+     */
+    public static FruitCatalog of(Iterable<Fruit> fruits) {
+        Builder builder = new Builder(fruits instanceof Collection ? ((Collection<?>) fruits).size() : 16);
+        for (Fruit fruit : fruits) {
+            builder.add(fruit);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the fruit of a row.
+     *
+     * @param row the row, from 0 to {@code size() - 1}
+     * @return a new fruit sharing the dictionary strings
+     */
+    public Fruit get(int row) {
+        return new Fruit(getName(row), getColor(row), getWeight(row));
+    }
+
+    public String getName(int row) {
+        return names[nameColumn.get(checkRow(row))];
+    }
+
+    public String getColor(int row) {
+        return colors[colorColumn.get(checkRow(row))];
+    }
+
+    public double getWeight(int row) {
+        return weightColumn.get(checkRow(row));
+    }
+
+    /**
+     * Returns the dictionary id of the color of a row.
+     *
+     * @param row the row
+     * @return the color id, from 0 to {@code getColorCount() - 1}
+     */
+    public int getColorId(int row) {
+        return colorColumn.get(checkRow(row));
+    }
+
+    /**
+     * Returns the id of a color in the color dictionary.
+     *
+     * @param color the color, matched exactly
+     * @return the color id, or -1 if no fruit has that color
+     */
+    public int colorIdOf(String color) {
+        Integer id = colorIds.get(color);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns a color of the dictionary.
+     *
+     * @param colorId the color id
+     * @return the color
+     */
+    public String colorOf(int colorId) {
+        return colors[colorId];
+    }
+
+    /**
+     * Returns the number of distinct colors.
+     *
+     * @return the size of the color dictionary
+     */
+    public int getColorCount() {
+        return colors.length;
+    }
+
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return the size of the name dictionary
+     */
+    public int getNameCount() {
+        return names.length;
+    }
+
+    /**
+     * Streams the weight column.
+     *
+     * @return the weights in row order
+     */
+    public DoubleStream weights() {
+        return IntStream.range(0, size).mapToDouble(weightColumn::get);
+    }
+
+    /**
+     * Returns the rows matching a predicate on the row index, which is meant to read the
+     * primitive columns through the getters.
+     *
+     * @param predicate the row filter
+     * @return the matching rows in ascending order
+     */
+    public int[] filter(IntPredicate predicate) {
+        return IntStream.range(0, size).filter(predicate).toArray();
+    }
+
+    /**
+     * Returns the rows of a color, comparing dictionary ids instead of strings.
+     *
+     * @param color the color, matched exactly
+     * @return the matching rows in ascending order
+     */
+    public int[] filterByColor(String color) {
+        int colorId = colorIdOf(color);
+        if (colorId < 0) {
+            return new int[0];
+        }
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (colorColumn.get(row) == colorId) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns the first row of a name, ignoring case. The name dictionary is searched
+     * first, so the name column is scanned as dictionary ids instead of strings.
+     *
+     * @param name the name
+     * @return the first matching row, or -1 if no fruit has that name
+     */
+    public int indexOfName(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        boolean[] matching = new boolean[names.length];
+        boolean found = false;
+        for (int id = 0; id < names.length; id++) {
+            if (names[id].toLowerCase(Locale.ROOT).equals(key)) {
+                matching[id] = true;
+                found = true;
+            }
+        }
+        if (found) {
+            for (int row = 0; row < size; row++) {
+                if (matching[nameColumn.get(row)]) {
+                    return row;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the rows whose weight lies in a range.
+     *
+     * @param minWeight the lowest weight, inclusive
+     * @param maxWeight the highest weight, inclusive
+     * @return the matching rows in ascending order
+     */
+    public int[] filterByWeight(double minWeight, double maxWeight) {
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            double weight = weightColumn.get(row);
+            if (weight >= minWeight && weight <= maxWeight) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns the fruits of some rows.
+     *
+     * @param rows the rows, for example the result of a filter
+     * @return a list view creating each fruit on access
+     */
+    public List<Fruit> select(int[] rows) {
+        int[] selected = rows.clone();
+        return new AbstractList<>() {
+            @Override
+            public Fruit get(int index) {
+                return FruitCatalog.this.get(selected[index]);
+            }
+
+            @Override
+            public int size() {
+                return selected.length;
+            }
+        };
+    }
+
+    /**
+     * Returns all fruits as a list view creating each fruit on access.
+     *
+     * @return the fruits in row order
+     */
+    public List<Fruit> asList() {
+        return new AbstractList<>() {
+            @Override
+            public Fruit get(int index) {
+                return FruitCatalog.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Fruit> iterator() {
+        return new Iterator<>() {
+            private int row;
+
+            @Override
+            public boolean hasNext() {
+                return row < size;
+            }
+
+            @Override
+            public Fruit next() {
+                if (row >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(row++);
+            }
+        };
+    }
+
+    String[] names() {
+        return names;
+    }
+
+    String[] colors() {
+        return colors;
+    }
+
+    IntBuffer nameColumn() {
+        return nameColumn.duplicate();
+    }
+
+    IntBuffer colorColumn() {
+        return colorColumn.duplicate();
+    }
+
+    DoubleBuffer weightColumn() {
+        return weightColumn.duplicate();
+    }
+
+    private static String[] dictionary(Map<String, Integer> ids) {
+        String[] values = new String[ids.size()];
+        for (Map.Entry<String, Integer> value : ids.entrySet()) {
+            values[value.getValue()] = value.getKey();
+        }
+        return values;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for catalog of " + size);
+        }
+        return row;
+    }
+
+    /**
+     * Accumulates fruits into growing columns. Not thread-safe.
+     */
+    public static final class Builder {
+        private final Map<String, Integer> names = new HashMap<>();
+        private final Map<String, Integer> colors = new HashMap<>();
+        private int[] nameColumn;
+        private int[] colorColumn;
+        private double[] weightColumn;
+        private int size;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.nameColumn = new int[capacity];
+            this.colorColumn = new int[capacity];
+            this.weightColumn = new double[capacity];
+        }
+
+        public Builder add(Fruit fruit) {
+            return add(fruit.getName(), fruit.getColor(), fruit.getWeight());
+        }
+
+        /**
+         * Appends a fruit.
+         *
+         * @param name   the name of the fruit
+         * @param color  the color of the fruit
+         * @param weight the weight of the fruit in grams
+         * @return this builder
+         */
+        public Builder add(String name, String color, double weight) {
+            if (size == weightColumn.length) {
+                int capacity = size + (size >> 1);
+                nameColumn = Arrays.copyOf(nameColumn, capacity);
+                colorColumn = Arrays.copyOf(colorColumn, capacity);
+                weightColumn = Arrays.copyOf(weightColumn, capacity);
+            }
+            nameColumn[size] = idOf(names, name);
+            colorColumn[size] = idOf(colors, color);
+            weightColumn[size] = weight;
+            size++;
+            return this;
+        }
+
+        public FruitCatalog build() {
+            return new FruitCatalog(this);
+        }
+
+        private static int idOf(Map<String, Integer> dictionary, String value) {
+            Integer id = dictionary.get(value);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.put(value, id);
+            }
+            return id;
+        }
+    }
+}
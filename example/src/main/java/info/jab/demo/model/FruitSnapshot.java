@@ -0,0 +1,274 @@
+package info.jab.demo.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary file format for a {@link FruitCatalog}.
+ *
+ * The file holds a header, the name and color dictionaries as length-prefixed UTF-8
+ * strings, then the three catalog columns as raw little-endian arrays, and a CRC-32 of
+ * everything before it:
+ *
+ * <pre>
+ * int    magic "FRTS", short version, short reserved
+ * int    rows, int names, int colors
+ * long   creation time in epoch milliseconds
+ * names, colors: int byte length (-1 for null) + UTF-8 bytes each, padded to 8 bytes
+ * int[rows] name ids, int[rows] color ids, padded to 8 bytes
+ * double[rows] weights
+ * int    CRC-32
+ * </pre>
+ *
+ * Snapshots are read through a memory mapping and the catalog serves its columns straight
+ * from the mapped file, so loading costs no reads, parsing or copies of the columns; only
+ * the dictionaries are decoded. A verified read adds one sequential pass over the file for
+ * the checksum and the dictionary ids. Snapshots are written to a temporary file that
+ * atomically replaces the previous snapshot, so a catalog mapped earlier keeps reading
+ * the file it was loaded from.
+ */
+public final class FruitSnapshot {
+
+    static final int MAGIC = 0x46525453;
+    static final short VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+
+    private final FruitCatalog catalog;
+    private final long createdAtMillis;
+
+    private FruitSnapshot(FruitCatalog catalog, long createdAtMillis) {
+        this.catalog = catalog;
+        this.createdAtMillis = createdAtMillis;
+    }
+
+    public FruitCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Returns when the snapshot was written.
+     *
+     * @return the creation time in milliseconds since the epoch
+     */
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    /**
+     * Writes a catalog to a snapshot file, replacing any previous snapshot atomically.
+     *
+     * @param catalog the catalog
+     * @param file    the snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(FruitCatalog catalog, Path file) throws IOException {
+        byte[][] names = encode(catalog.names());
+        byte[][] colors = encode(catalog.colors());
+        int rows = catalog.size();
+        long size = align(HEADER_SIZE + dictionarySize(names) + dictionarySize(colors)) + align(8L * rows)
+            + 8L * rows + 4;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Fruit catalog too large for a snapshot: " + rows + " rows");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0);
+        buffer.putInt(rows).putInt(names.length).putInt(colors.length);
+        buffer.putLong(System.currentTimeMillis());
+        putDictionary(buffer, names);
+        putDictionary(buffer, colors);
+        pad(buffer);
+        buffer.asIntBuffer().put(catalog.nameColumn());
+        buffer.position(buffer.position() + 4 * rows);
+        buffer.asIntBuffer().put(catalog.colorColumn());
+        buffer.position(buffer.position() + 4 * rows);
+        pad(buffer);
+        buffer.asDoubleBuffer().put(catalog.weightColumn());
+        buffer.position(buffer.position() + 8 * rows);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads and verifies a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the snapshot, whose catalog reads its columns from the mapped file
+     * @throws IOException if the file cannot be read, is not a snapshot, has an unsupported
+     *                     version or is corrupt
+     */
+    public static FruitSnapshot read(Path file) throws IOException {
+        return read(file, true);
+    }
+
+    /**
+     * Reads a snapshot file, optionally skipping the checksum and dictionary id checks so
+     * that only the pages actually accessed are loaded.
+     *
+     * @param file   the snapshot file
+     * @param verify whether to verify the checksum and dictionary ids; without verification
+     *               corrupt columns surface as wrong values or exceptions on access
+     * @return the snapshot, whose catalog reads its columns from the mapped file
+     * @throws IOException if the file cannot be read, is not a snapshot, has an unsupported
+     *                     version, or is found to be corrupt
+     */
+    public static FruitSnapshot read(Path file, boolean verify) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + 4 || channel.size() > Integer.MAX_VALUE) {
+                throw invalid(file, "unexpected size " + channel.size());
+            }
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt() != MAGIC) {
+            throw invalid(file, "not a fruit snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw invalid(file, "unsupported version " + version);
+        }
+        if (verify) {
+            int checksumAt = buffer.limit() - 4;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit(checksumAt));
+            if ((int) crc.getValue() != buffer.getInt(checksumAt)) {
+                throw invalid(file, "checksum mismatch");
+            }
+        }
+
+        buffer.getShort();
+        int rows = buffer.getInt();
+        int nameCount = buffer.getInt();
+        int colorCount = buffer.getInt();
+        long createdAtMillis = buffer.getLong();
+        if (rows < 0 || nameCount < 0 || colorCount < 0) {
+            throw invalid(file, "negative counts");
+        }
+        try {
+            String[] names = getDictionary(buffer, nameCount);
+            String[] colors = getDictionary(buffer, colorCount);
+            skipPadding(buffer);
+            // Views of the mapping rather than copies; they keep the mapping alive
+            IntBuffer nameColumn = buffer.asIntBuffer().limit(rows).slice();
+            buffer.position(buffer.position() + 4 * rows);
+            IntBuffer colorColumn = buffer.asIntBuffer().limit(rows).slice();
+            buffer.position(buffer.position() + 4 * rows);
+            skipPadding(buffer);
+            DoubleBuffer weightColumn = buffer.asDoubleBuffer().limit(rows).slice();
+            if (buffer.remaining() != 8L * rows + 4) {
+                throw invalid(file, "truncated");
+            }
+            if (verify) {
+                checkIds(file, nameColumn, nameCount);
+                checkIds(file, colorColumn, colorCount);
+            }
+            return new FruitSnapshot(new FruitCatalog(names, colors, nameColumn, colorColumn, weightColumn),
+                createdAtMillis);
+        } catch (RuntimeException e) {
+            // Truncated sections surface as buffer underflows or bad positions
+            throw new IOException("Invalid fruit snapshot " + file + ": truncated", e);
+        }
+    }
+
+    private static byte[][] encode(String[] values) {
+        byte[][] encoded = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i] == null ? null : values[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    private static long dictionarySize(byte[][] values) {
+        long size = 0;
+        for (byte[] value : values) {
+            size += 4 + (value == null ? 0 : value.length);
+        }
+        return size;
+    }
+
+    private static void putDictionary(ByteBuffer buffer, byte[][] values) {
+        for (byte[] value : values) {
+            if (value == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(value.length).put(value);
+            }
+        }
+    }
+
+    private static String[] getDictionary(ByteBuffer buffer, int count) {
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                values[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+        }
+        return values;
+    }
+
+    private static void checkIds(Path file, IntBuffer column, int dictionarySize) throws IOException {
+        for (int row = 0; row < column.limit(); row++) {
+            int id = column.get(row);
+            if (id < 0 || id >= dictionarySize) {
+                throw invalid(file, "dictionary id " + id + " out of range");
+            }
+        }
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static void pad(ByteBuffer buffer) {
+        while ((buffer.position() & 7) != 0) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static void skipPadding(ByteBuffer buffer) {
+        buffer.position((int) align(buffer.position()));
+    }
+
+    private static IOException invalid(Path file, String reason) {
+        return new IOException("Invalid fruit snapshot " + file + ": " + reason);
+    }
+}
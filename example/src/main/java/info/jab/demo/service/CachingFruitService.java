@@ -0,0 +1,98 @@
+package info.jab.demo.service;
+
+import info.jab.demo.http.HttpClient;
+import info.jab.demo.model.Fruit;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+/**
+ * Fruit service that answers repeated requests for the same URL from a {@link FruitCache}.
+ *
+ * {@link #getAllFruits()}, the multi-URL variants and the lookup methods go through the
+ * cache, so many threads asking for the same catalog cause a single upstream request per
+ * time to live. The lists returned are shared and unmodifiable. The lookup index is rebuilt
+ * whenever the cache hands out a different list, so lookups follow the background
+ * refreshes. {@link #streamFruits()} and {@link #getAllFruitsAsync()} always go to the service.
+ */
+public class CachingFruitService extends FruitService {
+    private final String serviceUrl;
+    private final FruitCache cache;
+    private volatile IndexedFruits indexed;
+
+    /**
+     * Creates a caching service.
+     *
+     * @param httpClient the HTTP client to use for requests
+     * @param serviceUrl the URL of the fruit service
+     * @param ttl        how long a fetched list is served before it is refreshed in the background
+     * @param maxEntries the maximum number of URLs cached
+     */
+    public CachingFruitService(HttpClient httpClient, String serviceUrl, Duration ttl, int maxEntries) {
+        super(httpClient, serviceUrl);
+        this.serviceUrl = serviceUrl;
+        this.cache = new FruitCache(super::fetchFruits, ttl, maxEntries);
+    }
+
+    CachingFruitService(HttpClient httpClient, String serviceUrl, Duration ttl, int maxEntries,
+                        Executor refreshExecutor, LongSupplier nanoTime) {
+        super(httpClient, serviceUrl);
+        this.serviceUrl = serviceUrl;
+        this.cache = new FruitCache(super::fetchFruits, ttl, maxEntries, refreshExecutor, nanoTime);
+    }
+
+    /**
+     * Returns the cache, for example to read its hit, miss and eviction counters.
+     *
+     * @return the cache
+     */
+    public FruitCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the index of the list currently cached for the service URL, building it again
+     * when the cache has replaced that list since the last lookup.
+     */
+    @Override
+    public FruitIndex getIndex() throws IOException {
+        List<Fruit> fruits = cache.get(serviceUrl);
+        IndexedFruits current = indexed;
+        if (current == null || current.fruits != fruits) {
+            current = new IndexedFruits(fruits, new FruitIndex(fruits));
+            indexed = current;
+        }
+        return current.index;
+    }
+
+    /**
+     * Drops the cached list of the service URL before reloading the index, so the lookups
+     * see the current upstream data.
+     */
+    @Override
+    public FruitIndex refresh() throws IOException {
+        cache.invalidate(serviceUrl);
+        return getIndex();
+    }
+
+    @Override
+    protected List<Fruit> fetchFruits(String url) throws IOException {
+        return cache.get(url);
+    }
+
+    /**
+     * A cached list together with the index built from it.
+     */
+    private static final class IndexedFruits {
+        private final List<Fruit> fruits;
+        private final FruitIndex index;
+
+        IndexedFruits(List<Fruit> fruits, FruitIndex index) {
+            this.fruits = fruits;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package info.jab.demo.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs one blocking fetch per URL concurrently and collects the results in URL order.
+ *
+ * On Java 21 and later every fetch runs on its own virtual thread, so thousands of slow
+ * endpoints only cost a few kilobytes each; the executor is looked up reflectively so the
+ * code still compiles for and runs on Java 17, where a bounded pool of platform threads is
+ * used instead. Either way at most {@code maxConcurrency} fetches run at once, and a fetch
+ * that has not completed within the deadline after it started fails the whole fan-out.
+ */
+final class FanOutFetcher {
+
+    /**
+     * System property that disables virtual threads when set to {@code false}.
+     */
+    static final String VIRTUAL_THREADS_PROPERTY = "fruit.fanout.virtualThreads";
+
+    private static final Method VIRTUAL_EXECUTOR_FACTORY = findVirtualExecutorFactory();
+
+    private final int maxConcurrency;
+    private final Duration deadline;
+    private final boolean virtualThreads;
+
+    /**
+     * A single blocking fetch.
+     *
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    interface Fetch<T> {
+        T fetch(String url) throws IOException;
+    }
+
+    /**
+     * Creates a fetcher that uses virtual threads when the runtime supports them and they
+     * are not disabled through {@value #VIRTUAL_THREADS_PROPERTY}.
+     *
+     * @param maxConcurrency the maximum number of fetches running at once
+     * @param deadline       the maximum duration of a single fetch
+     */
+    FanOutFetcher(int maxConcurrency, Duration deadline) {
+        this(maxConcurrency, deadline, VIRTUAL_EXECUTOR_FACTORY != null
+            && !"false".equalsIgnoreCase(System.getProperty(VIRTUAL_THREADS_PROPERTY)));
+    }
+
+    FanOutFetcher(int maxConcurrency, Duration deadline, boolean virtualThreads) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Max concurrency must be positive: " + maxConcurrency);
+        }
+        if (deadline.isNegative() || deadline.isZero()) {
+            throw new IllegalArgumentException("Deadline must be positive: " + deadline);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.deadline = deadline;
+        this.virtualThreads = virtualThreads && VIRTUAL_EXECUTOR_FACTORY != null;
+    }
+
+    boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Fetches all URLs and returns their results in the order of the URLs.
+     *
+     * @param urls  the URLs to fetch
+     * @param fetch the blocking fetch to run for each URL
+     * @param <T>   the result type
+     * @return the results, one per URL
+     * @throws IOException if any fetch fails or exceeds the deadline; the remaining
+     *                     fetches are cancelled
+     */
+    <T> List<T> fetchAll(List<String> urls, Fetch<T> fetch) throws IOException {
+        if (urls.isEmpty()) {
+            return List.of();
+        }
+        Semaphore permits = new Semaphore(maxConcurrency);
+        List<FutureTask<T>> tasks = new ArrayList<>(urls.size());
+        ExecutorService executor = newExecutor(Math.min(maxConcurrency, urls.size()));
+        try {
+            for (String url : urls) {
+                FutureTask<T> task = newTask(url, fetch, permits);
+                tasks.add(task);
+                executor.execute(task);
+            }
+
+            List<T> results = new ArrayList<>(urls.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                results.add(await(tasks.get(i), urls.get(i)));
+            }
+            return results;
+        } finally {
+            for (FutureTask<T> task : tasks) {
+                task.cancel(true);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> FutureTask<T> newTask(String url, Fetch<T> fetch, Semaphore permits) {
+        AtomicReference<FutureTask<T>> self = new AtomicReference<>();
+        FutureTask<T> task = new FutureTask<>(() -> {
+            permits.acquire();
+            // The deadline only starts once the fetch may actually run
+            ScheduledFuture<?> timer = Deadlines.TIMER.schedule(() -> self.get().cancel(true),
+                deadline.toNanos(), TimeUnit.NANOSECONDS);
+            try {
+                return fetch.fetch(url);
+            } finally {
+                timer.cancel(false);
+                permits.release();
+            }
+        });
+        self.set(task);
+        return task;
+    }
+
+    private <T> T await(FutureTask<T> task, String url) throws IOException {
+        try {
+            return task.get();
+        } catch (CancellationException e) {
+            throw new IOException("Request to " + url + " exceeded the deadline of " + deadline.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Request to " + url + " failed", cause);
+        }
+    }
+
+    private ExecutorService newExecutor(int platformThreads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) VIRTUAL_EXECUTOR_FACTORY.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to platform threads below
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads, daemonThreads("fruit-fan-out"));
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Lazily created timer enforcing the per-fetch deadlines.
+     */
+    private static final class Deadlines {
+        private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("fruit-fan-out-deadline"));
+    }
+}
@@ -0,0 +1,426 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Aggregations over the weight and color columns of a {@link FruitCatalog}.
+ *
+ * Every aggregation splits the rows into ranges that are reduced in parallel on a
+ * fork-join pool into primitive per-color accumulators indexed by color id, which are then
+ * merged pairwise; no value is boxed and no stream collector is involved. Colors are
+ * reported in the order they first appear in the catalog.
+ */
+public final class FruitAnalytics {
+
+    private static final int DEFAULT_THRESHOLD = 16_384;
+
+    private final FruitCatalog catalog;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * Creates analytics running on the common fork-join pool.
+     *
+     * @param catalog the catalog to analyse
+     */
+    public FruitAnalytics(FruitCatalog catalog) {
+        this(catalog, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates analytics.
+     *
+     * @param catalog   the catalog to analyse
+     * @param pool      the pool running the reductions
+     * @param threshold the number of rows below which a range is reduced sequentially
+     */
+    FruitAnalytics(FruitCatalog catalog, ForkJoinPool pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        this.catalog = catalog;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Computes the weight statistics of the whole catalog.
+     *
+     * @return the statistics
+     */
+    public WeightStatistics weightStatistics() {
+        Stats stats = pool.invoke(new StatsTask(0, catalog.size(), false));
+        return stats.toStatistics(0);
+    }
+
+    /**
+     * Computes the weight statistics of each color.
+     *
+     * @return the statistics by color
+     */
+    public Map<String, WeightStatistics> statisticsByColor() {
+        Stats stats = pool.invoke(new StatsTask(0, catalog.size(), true));
+        Map<String, WeightStatistics> byColor = new LinkedHashMap<>();
+        for (int colorId = 0; colorId < catalog.getColorCount(); colorId++) {
+            if (stats.count[colorId] > 0) {
+                byColor.put(catalog.colorOf(colorId), stats.toStatistics(colorId));
+            }
+        }
+        return byColor;
+    }
+
+    /**
+     * Counts the fruits of each color.
+     *
+     * @return the counts by color
+     */
+    public Map<String, Long> countByColor() {
+        Stats stats = pool.invoke(new StatsTask(0, catalog.size(), true));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int colorId = 0; colorId < catalog.getColorCount(); colorId++) {
+            if (stats.count[colorId] > 0) {
+                counts.put(catalog.colorOf(colorId), stats.count[colorId]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Computes weight percentiles of the whole catalog with the nearest-rank method.
+     *
+     * @param quantiles the quantiles, between 0 and 1
+     * @return one weight per quantile, or NaN for an empty catalog
+     */
+    public double[] percentiles(double... quantiles) {
+        double[] sorted = catalog.weights().toArray();
+        Arrays.parallelSort(sorted);
+        return nearestRanks(sorted, 0, sorted.length, quantiles);
+    }
+
+    /**
+     * Computes weight percentiles of each color with the nearest-rank method.
+     *
+     * @param quantiles the quantiles, between 0 and 1
+     * @return one weight per quantile for each color
+     */
+    public Map<String, double[]> percentilesByColor(double... quantiles) {
+        int[] offsets = groupOffsets();
+        double[] grouped = new double[catalog.size()];
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int row = 0; row < catalog.size(); row++) {
+            grouped[next[catalog.getColorId(row)]++] = catalog.getWeight(row);
+        }
+        pool.invoke(new SortGroupsTask(grouped, offsets, 0, offsets.length - 1));
+
+        Map<String, double[]> byColor = new LinkedHashMap<>();
+        for (int colorId = 0; colorId < offsets.length - 1; colorId++) {
+            if (offsets[colorId + 1] > offsets[colorId]) {
+                byColor.put(catalog.colorOf(colorId),
+                    nearestRanks(grouped, offsets[colorId], offsets[colorId + 1], quantiles));
+            }
+        }
+        return byColor;
+    }
+
+    /**
+     * Finds the heaviest fruits of each color.
+     *
+     * @param k the maximum number of fruits per color
+     * @return the heaviest fruits of each color, heaviest first; equal weights keep catalog order
+     */
+    public Map<String, List<Fruit>> topHeaviestByColor(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive: " + k);
+        }
+        TopK top = pool.invoke(new TopKTask(0, catalog.size(), k));
+        Map<String, List<Fruit>> byColor = new LinkedHashMap<>();
+        for (int colorId = 0; colorId < catalog.getColorCount(); colorId++) {
+            int[] rows = top.sortedRows(colorId);
+            if (rows.length > 0) {
+                List<Fruit> fruits = new ArrayList<>(rows.length);
+                for (int row : rows) {
+                    fruits.add(catalog.get(row));
+                }
+                byColor.put(catalog.colorOf(colorId), Collections.unmodifiableList(fruits));
+            }
+        }
+        return byColor;
+    }
+
+    /**
+     * Returns the start of each color group when rows are ordered by color id, followed by the row count.
+     */
+    private int[] groupOffsets() {
+        Stats stats = pool.invoke(new StatsTask(0, catalog.size(), true));
+        int[] offsets = new int[catalog.getColorCount() + 1];
+        for (int colorId = 0; colorId < catalog.getColorCount(); colorId++) {
+            offsets[colorId + 1] = offsets[colorId] + (int) stats.count[colorId];
+        }
+        return offsets;
+    }
+
+    private static double[] nearestRanks(double[] sorted, int from, int to, double[] quantiles) {
+        double[] values = new double[quantiles.length];
+        int count = to - from;
+        for (int i = 0; i < quantiles.length; i++) {
+            double quantile = quantiles[i];
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+            }
+            values[i] = count == 0 ? Double.NaN
+                : sorted[from + Math.max(0, (int) Math.ceil(quantile * count) - 1)];
+        }
+        return values;
+    }
+
+    /**
+     * Count, sum, minimum and maximum of the weights, of each color or of the whole catalog.
+     */
+    private static final class Stats {
+        final long[] count;
+        final double[] sum;
+        final double[] min;
+        final double[] max;
+
+        Stats(int groups) {
+            count = new long[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int group, double weight) {
+            count[group]++;
+            sum[group] += weight;
+            min[group] = Math.min(min[group], weight);
+            max[group] = Math.max(max[group], weight);
+        }
+
+        Stats merge(Stats other) {
+            for (int group = 0; group < count.length; group++) {
+                count[group] += other.count[group];
+                sum[group] += other.sum[group];
+                min[group] = Math.min(min[group], other.min[group]);
+                max[group] = Math.max(max[group], other.max[group]);
+            }
+            return this;
+        }
+
+        WeightStatistics toStatistics(int group) {
+            return count[group] == 0 ? WeightStatistics.EMPTY
+                : new WeightStatistics(count[group], sum[group], min[group], max[group]);
+        }
+    }
+
+    private final class StatsTask extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean byColor;
+
+        StatsTask(int from, int to, boolean byColor) {
+            this.from = from;
+            this.to = to;
+            this.byColor = byColor;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= threshold) {
+                Stats stats = new Stats(byColor ? catalog.getColorCount() : 1);
+                for (int row = from; row < to; row++) {
+                    stats.add(byColor ? catalog.getColorId(row) : 0, catalog.getWeight(row));
+                }
+                return stats;
+            }
+            int middle = (from + to) >>> 1;
+            StatsTask left = new StatsTask(from, middle, byColor);
+            left.fork();
+            Stats right = new StatsTask(middle, to, byColor).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Bounded min-heaps of row numbers, one per color, keeping the heaviest rows seen.
+     */
+    private final class TopK {
+        private final int k;
+        private final int[][] heaps;
+        private final int[] sizes;
+
+        TopK(int k) {
+            this.k = k;
+            this.heaps = new int[catalog.getColorCount()][];
+            this.sizes = new int[catalog.getColorCount()];
+        }
+
+        void offer(int row) {
+            int colorId = catalog.getColorId(row);
+            int[] heap = heaps[colorId];
+            if (heap == null) {
+                heap = new int[Math.min(k, 16)];
+                heaps[colorId] = heap;
+            }
+            int size = sizes[colorId];
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, Math.min(k, size * 2));
+                    heaps[colorId] = heap;
+                }
+                heap[size] = row;
+                sizes[colorId] = size + 1;
+                siftUp(heap, size);
+            } else if (lighter(heap[0], row)) {
+                heap[0] = row;
+                siftDown(heap, size);
+            }
+        }
+
+        TopK merge(TopK other) {
+            for (int colorId = 0; colorId < heaps.length; colorId++) {
+                for (int i = 0; i < other.sizes[colorId]; i++) {
+                    offer(other.heaps[colorId][i]);
+                }
+            }
+            return this;
+        }
+
+        int[] sortedRows(int colorId) {
+            int size = sizes[colorId];
+            int[] sorted = size == 0 ? new int[0] : Arrays.copyOf(heaps[colorId], size);
+            // Heaviest first; k is small, so an insertion sort is enough
+            for (int i = 1; i < size; i++) {
+                int row = sorted[i];
+                int j = i - 1;
+                while (j >= 0 && lighter(sorted[j], row)) {
+                    sorted[j + 1] = sorted[j];
+                    j--;
+                }
+                sorted[j + 1] = row;
+            }
+            return sorted;
+        }
+
+        /**
+         * Orders rows by weight, then prefers earlier rows among equal weights.
+         */
+        private boolean lighter(int row, int other) {
+            int comparison = Double.compare(catalog.getWeight(row), catalog.getWeight(other));
+            return comparison < 0 || (comparison == 0 && row > other);
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!lighter(heap[index], heap[parent])) {
+                    return;
+                }
+                swap(heap, index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size) {
+            int index = 0;
+            while (true) {
+                int lightest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && lighter(heap[left], heap[lightest])) {
+                    lightest = left;
+                }
+                if (right < size && lighter(heap[right], heap[lightest])) {
+                    lightest = right;
+                }
+                if (lightest == index) {
+                    return;
+                }
+                swap(heap, index, lightest);
+                index = lightest;
+            }
+        }
+
+        private void swap(int[] heap, int i, int j) {
+            int row = heap[i];
+            heap[i] = heap[j];
+            heap[j] = row;
+        }
+    }
+
+    private final class TopKTask extends RecursiveTask<TopK> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int k;
+
+        TopKTask(int from, int to, int k) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= threshold) {
+                TopK top = new TopK(k);
+                for (int row = from; row < to; row++) {
+                    top.offer(row);
+                }
+                return top;
+            }
+            int middle = (from + to) >>> 1;
+            TopKTask left = new TopKTask(from, middle, k);
+            left.fork();
+            TopK right = new TopKTask(middle, to, k).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Sorts the weight segment of each color in parallel.
+     */
+    private static final class SortGroupsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] weights;
+        private final int[] offsets;
+        private final int fromGroup;
+        private final int toGroup;
+
+        SortGroupsTask(double[] weights, int[] offsets, int fromGroup, int toGroup) {
+            this.weights = weights;
+            this.offsets = offsets;
+            this.fromGroup = fromGroup;
+            this.toGroup = toGroup;
+        }
+
+        @Override
+        protected void compute() {
+            if (toGroup - fromGroup <= 1) {
+                if (toGroup > fromGroup) {
+                    Arrays.sort(weights, offsets[fromGroup], offsets[toGroup]);
+                }
+                return;
+            }
+            int middle = (fromGroup + toGroup) >>> 1;
+            invokeAll(new SortGroupsTask(weights, offsets, fromGroup, middle),
+                new SortGroupsTask(weights, offsets, middle, toGroup));
+        }
+    }
+}
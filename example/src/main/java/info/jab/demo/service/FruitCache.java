@@ -0,0 +1,247 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Size-bounded cache of fruit lists keyed by service URL.
+ *
+ * Entries older than the time to live are still served while a single background task
+ * reloads them, so callers never wait for a refresh; a refresh that fails keeps the stale
+ * list until the next attempt. Concurrent misses for the same URL share one load, and the
+ * least recently used entry is evicted once the cache holds more than the maximum number
+ * of entries. A failed first load is not cached.
+ */
+public final class FruitCache {
+
+    /**
+     * Loads the fruits of one URL.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        List<Fruit> load(String url) throws IOException;
+    }
+
+    private final Loader loader;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Executor refreshExecutor;
+    private final LongSupplier nanoTime;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache that refreshes stale entries on a shared pool of daemon threads.
+     *
+     * @param loader     loads the fruits of a URL
+     * @param ttl        how long a loaded list is considered fresh
+     * @param maxEntries the maximum number of URLs kept
+     */
+    public FruitCache(Loader loader, Duration ttl, int maxEntries) {
+        this(loader, ttl, maxEntries, RefreshExecutor.INSTANCE, System::nanoTime);
+    }
+
+    FruitCache(Loader loader, Duration ttl, int maxEntries, Executor refreshExecutor, LongSupplier nanoTime) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive: " + ttl);
+        }
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive: " + maxEntries);
+        }
+        this.loader = loader;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.refreshExecutor = refreshExecutor;
+        this.nanoTime = nanoTime;
+        // Access order turns the map into an LRU list
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > FruitCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the fruits of a URL, loading them on the calling thread if no other thread
+     * is already doing so.
+     *
+     * @param url the URL of the fruit service
+     * @return the cached fruits, as an unmodifiable list shared between callers
+     * @throws IOException if the list is not cached and cannot be loaded
+     * @throws IllegalStateException if a response cannot be parsed
+     */
+    public List<Fruit> get(String url) throws IOException {
+        Entry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(url);
+            if (entry == null || entry.failed()) {
+                entry = new Entry();
+                entries.put(url, entry);
+                owner = true;
+            }
+        }
+
+        if (entry.isLoaded()) {
+            hits.increment();
+            if (nanoTime.getAsLong() - entry.loadedAt >= ttlNanos && entry.refreshing.compareAndSet(false, true)) {
+                refreshInBackground(url, entry);
+            }
+            return entry.fruits;
+        }
+
+        misses.increment();
+        if (owner) {
+            load(url, entry);
+        }
+        return await(entry);
+    }
+
+    /**
+     * Removes the cached fruits of a URL, so the next request loads them again.
+     *
+     * @param url the URL of the fruit service
+     */
+    public void invalidate(String url) {
+        synchronized (entries) {
+            entries.remove(url);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of requests answered from a loaded entry, fresh or stale.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests that had to wait for a load, including those that
+     * shared the load of a concurrent request.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries removed to stay within the maximum size.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void load(String url, Entry entry) {
+        try {
+            entry.set(List.copyOf(loader.load(url)), nanoTime.getAsLong());
+            entry.loaded.complete(null);
+        } catch (Throwable e) {
+            // Waiters are released with the same failure the owner sees
+            synchronized (entries) {
+                entries.remove(url, entry);
+            }
+            entry.loaded.completeExceptionally(e);
+        }
+    }
+
+    private void refreshInBackground(String url, Entry entry) {
+        refreshExecutor.execute(() -> {
+            try {
+                entry.set(List.copyOf(loader.load(url)), nanoTime.getAsLong());
+            } catch (IOException | RuntimeException e) {
+                // Keep serving the stale list; the next request after the TTL retries
+            } finally {
+                entry.refreshing.set(false);
+            }
+        });
+    }
+
+    private static List<Fruit> await(Entry entry) throws IOException {
+        try {
+            entry.loaded.get();
+            return entry.fruits;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the fruit list");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile List<Fruit> fruits;
+        volatile long loadedAt;
+
+        void set(List<Fruit> fruits, long loadedAt) {
+            this.loadedAt = loadedAt;
+            this.fruits = fruits;
+        }
+
+        boolean isLoaded() {
+            return loaded.isDone() && !loaded.isCompletedExceptionally();
+        }
+
+        boolean failed() {
+            return loaded.isCompletedExceptionally();
+        }
+    }
+
+    private static final class RefreshExecutor {
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fruit-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,153 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable in-memory index over a fruit list.
+ *
+ * Names and colors are matched case-insensitively through hash maps, so lookups take
+ * constant time; weight ranges are answered by binary search over the fruits sorted by
+ * weight. When several fruits share a name, the first one in list order is returned.
+ */
+public final class FruitIndex {
+    private final List<Fruit> fruits;
+    private final Map<String, Fruit> byName;
+    private final Map<String, List<Fruit>> byColor;
+    private final double[] weights;
+    private final Fruit[] byWeight;
+
+    /**
+     * Builds the index.
+     *
+     * @param fruits the fruits to index
+     */
+    public FruitIndex(List<Fruit> fruits) {
+        this.fruits = List.copyOf(fruits);
+        this.byName = new HashMap<>(this.fruits.size() * 2);
+        Map<String, List<Fruit>> colors = new HashMap<>();
+        for (Fruit fruit : this.fruits) {
+            byName.putIfAbsent(key(fruit.getName()), fruit);
+            colors.computeIfAbsent(key(fruit.getColor()), color -> new ArrayList<>()).add(fruit);
+        }
+        colors.replaceAll((color, list) -> Collections.unmodifiableList(list));
+        this.byColor = colors;
+
+        // A stable sort keeps fruits of equal weight in list order
+        this.byWeight = this.fruits.toArray(new Fruit[0]);
+        Arrays.sort(byWeight, Comparator.comparingDouble(Fruit::getWeight));
+        this.weights = new double[byWeight.length];
+        for (int i = 0; i < byWeight.length; i++) {
+            weights[i] = byWeight[i].getWeight();
+        }
+    }
+
+    /**
+     * Returns the indexed fruits in their original order.
+     *
+     * @return the fruits
+     */
+    public List<Fruit> getFruits() {
+        return fruits;
+    }
+
+    public int size() {
+        return fruits.size();
+    }
+
+    /**
+     * Finds a fruit by name, ignoring case.
+     *
+     * @param name the name of the fruit to find
+     * @return the found fruit, or null if not found
+     */
+    public Fruit findByName(String name) {
+        return name == null ? null : byName.get(key(name));
+    }
+
+    /**
+     * Finds the fruits of many names at once, ignoring case.
+     *
+     * @param names the names to find
+     * @return the fruits found and the names that were not
+     * @throws NullPointerException if a name is null
+     */
+    public FruitLookupResult findByNames(Collection<String> names) {
+        Map<String, Fruit> found = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        List<String> missing = new ArrayList<>();
+        Set<String> seen = new HashSet<>(names.size() * 2);
+        for (String name : names) {
+            String key = key(Objects.requireNonNull(name, "name"));
+            if (!seen.add(key)) {
+                continue;
+            }
+            Fruit fruit = byName.get(key);
+            if (fruit == null) {
+                missing.add(name);
+            } else {
+                found.put(name, fruit);
+            }
+        }
+        return new FruitLookupResult(found, missing);
+    }
+
+    /**
+     * Finds the fruits of a color, ignoring case.
+     *
+     * @param color the color
+     * @return the fruits of that color in list order, empty if there are none
+     */
+    public List<Fruit> findByColor(String color) {
+        List<Fruit> matches = color == null ? null : byColor.get(key(color));
+        return matches == null ? List.of() : matches;
+    }
+
+    /**
+     * Finds the fruits whose weight lies in a range.
+     *
+     * @param minWeight the lowest weight, inclusive
+     * @param maxWeight the highest weight, inclusive
+     * @return the matching fruits ordered by weight, empty if there are none
+     */
+    public List<Fruit> findByWeightRange(double minWeight, double maxWeight) {
+        List<Fruit> matches = new ArrayList<>();
+        for (int i = lowerBound(minWeight); i < weights.length && weights[i] <= maxWeight; i++) {
+            matches.add(byWeight[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the position of the first weight that is not below the given one.
+     */
+    private int lowerBound(double weight) {
+        int low = 0;
+        int high = weights.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (weights[middle] < weight) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,460 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser for a JSON array of fruit objects.
+ *
+ * Characters are pulled from the source through a small fixed buffer and each fruit is
+ * returned as soon as its closing brace has been read, so memory use is bounded by the
+ * largest single object rather than the whole response. Fields may appear in any order
+ * with any whitespace; unknown fields are skipped whatever their value.
+ *
+ * Paginated responses may wrap the array in an envelope such as
+ * {@code {"fruits": [...], "next": "/api/fruits?page=2"}} or
+ * {@code {"fruits": [...], "nextCursor": "abc"}}; the pagination fields are available
+ * once {@link #next()} has returned null, whether they precede or follow the array. An
+ * object without a {@code fruits} array, such as an error body, is rejected.
+ *
+ * Field names and the name and color of each fruit go through a shared
+ * {@link StringInterner}, so repeated values are neither allocated again nor duplicated
+ * in long-lived catalogs.
+ */
+public class FruitJsonParser implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final StringInterner interner;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+    private long offset;
+    private boolean started;
+    private boolean envelopeOpen;
+    private boolean arrayRead;
+    private boolean finished;
+    private String nextPage;
+    private String nextCursor;
+
+    /**
+     * Creates a parser reading UTF-8 encoded JSON.
+     *
+     * @param in the JSON source, closed when the parser is closed
+     */
+    public FruitJsonParser(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates a parser.
+     *
+     * @param reader the JSON source, closed when the parser is closed
+     */
+    public FruitJsonParser(Reader reader) {
+        this(reader, StringInterner.SHARED);
+    }
+
+    FruitJsonParser(Reader reader, StringInterner interner) {
+        this.reader = reader;
+        this.interner = interner;
+    }
+
+    /**
+     * Reads the next fruit of the array.
+     *
+     * @return the next fruit, or null once the end of the array has been reached
+     * @throws IOException if the source cannot be read
+     * @throws IllegalStateException if the source is not a valid array of fruits
+     */
+    public Fruit next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = nextNonWhitespace();
+        if (!started) {
+            started = true;
+            if (c == '{') {
+                if (!readEnvelopeFields(nextNonWhitespace())) {
+                    throw error("object has no 'fruits' array");
+                }
+            } else if (c != '[') {
+                throw error("expected '[' or '{' but found " + describe(c));
+            }
+            c = nextNonWhitespace();
+            if (c == ']') {
+                finish();
+                return null;
+            }
+        } else if (c == ']') {
+            finish();
+            return null;
+        } else if (c == ',') {
+            c = nextNonWhitespace();
+        } else {
+            throw error("expected ',' or ']' but found " + describe(c));
+        }
+        return readFruit(c);
+    }
+
+    /**
+     * Reads all remaining fruits.
+     *
+     * @return the fruits
+     * @throws IOException if the source cannot be read
+     * @throws IllegalStateException if the source is not a valid array of fruits
+     */
+    public List<Fruit> readAll() throws IOException {
+        List<Fruit> fruits = new ArrayList<>();
+        Fruit fruit;
+        while ((fruit = next()) != null) {
+            fruits.add(fruit);
+        }
+        return fruits;
+    }
+
+    /**
+     * Returns the URL of the next page given by the {@code next} field of an envelope.
+     * Only known once {@link #next()} has returned null.
+     *
+     * @return the next page URL, possibly relative, or null if there is none
+     */
+    public String getNextPage() {
+        return nextPage;
+    }
+
+    /**
+     * Returns the cursor of the next page given by the {@code nextCursor} field of an envelope.
+     * Only known once {@link #next()} has returned null.
+     *
+     * @return the next page cursor, or null if there is none
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads envelope fields until the opening bracket of the {@code fruits} array or the
+     * closing brace of the envelope.
+     *
+     * @param c the first character after the opening brace or after the array
+     * @return true if the array was found, false if the envelope was closed
+     */
+    private boolean readEnvelopeFields(int c) throws IOException {
+        boolean first = !envelopeOpen;
+        envelopeOpen = true;
+        while (true) {
+            if (c == '}') {
+                envelopeOpen = false;
+                return false;
+            }
+            if (!first) {
+                if (c != ',') {
+                    throw error("expected ',' or '}' but found " + describe(c));
+                }
+                c = nextNonWhitespace();
+            }
+            first = false;
+            if (c != '"') {
+                throw error("expected a field name but found " + describe(c));
+            }
+            String field = readString();
+            c = nextNonWhitespace();
+            if (c != ':') {
+                throw error("expected ':' but found " + describe(c));
+            }
+            if (field.equals("fruits") && !arrayRead) {
+                c = nextNonWhitespace();
+                if (c != '[') {
+                    throw error("expected '[' for 'fruits' but found " + describe(c));
+                }
+                return true;
+            }
+            readEnvelopeValue(field);
+            c = nextNonWhitespace();
+        }
+    }
+
+    private void readEnvelopeValue(String field) throws IOException {
+        if (field.equals("next")) {
+            nextPage = readNullableString(field);
+        } else if (field.equals("nextCursor")) {
+            nextCursor = readNullableString(field);
+        } else {
+            skipValue();
+        }
+    }
+
+    private String readNullableString(String field) throws IOException {
+        int c = nextNonWhitespace();
+        if (c == 'n' && read() == 'u' && read() == 'l' && read() == 'l') {
+            return null;
+        } else if (c != '"') {
+            throw error("expected a string for '" + field + "' but found " + describe(c));
+        }
+        return readString();
+    }
+
+    private Fruit readFruit(int c) throws IOException {
+        if (c != '{') {
+            throw error("expected '{' but found " + describe(c));
+        }
+        String name = null;
+        String color = null;
+        double weight = Double.NaN;
+
+        c = nextNonWhitespace();
+        if (c != '}') {
+            while (true) {
+                if (c != '"') {
+                    throw error("expected a field name but found " + describe(c));
+                }
+                readChars();
+                String field = interner.intern(text);
+                c = nextNonWhitespace();
+                if (c != ':') {
+                    throw error("expected ':' but found " + describe(c));
+                }
+                switch (field) {
+                    case "name":
+                        name = readStringValue(field);
+                        break;
+                    case "color":
+                        color = readStringValue(field);
+                        break;
+                    case "weight":
+                        weight = readNumberValue(field);
+                        break;
+                    default:
+                        skipValue();
+                        break;
+                }
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}' but found " + describe(c));
+                }
+                c = nextNonWhitespace();
+            }
+        }
+
+        if (name == null || color == null || Double.isNaN(weight)) {
+            throw error("fruit is missing its " + (name == null ? "name" : color == null ? "color" : "weight"));
+        }
+        return new Fruit(name, color, weight);
+    }
+
+    private String readStringValue(String field) throws IOException {
+        int c = nextNonWhitespace();
+        if (c != '"') {
+            throw error("expected a string for '" + field + "' but found " + describe(c));
+        }
+        readChars();
+        return interner.intern(text);
+    }
+
+    private double readNumberValue(String field) throws IOException {
+        int c = nextNonWhitespace();
+        text.setLength(0);
+        while (isNumberChar(c)) {
+            text.append((char) c);
+            c = read();
+        }
+        unread(c);
+        try {
+            return Double.parseDouble(text.toString());
+        } catch (NumberFormatException e) {
+            throw error("expected a number for '" + field + "' but found '" + text + "'");
+        }
+    }
+
+    /**
+     * Reads a string whose opening quote has been consumed.
+     */
+    private String readString() throws IOException {
+        readChars();
+        return text.toString();
+    }
+
+    /**
+     * Reads the characters of a string whose opening quote has been consumed into {@link #text}.
+     */
+    private void readChars() throws IOException {
+        text.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw error("unterminated string");
+            }
+            // Copy runs of plain characters in one go
+            int start = position;
+            while (position < limit && buffer[position] != '"' && buffer[position] != '\\') {
+                position++;
+            }
+            text.append(buffer, start, position - start);
+            offset += position - start;
+            if (position == limit) {
+                continue;
+            }
+            char c = buffer[position++];
+            offset++;
+            if (c == '"') {
+                return;
+            }
+            readEscape();
+        }
+    }
+
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                text.append((char) c);
+                break;
+            case 'b':
+                text.append('\b');
+                break;
+            case 'f':
+                text.append('\f');
+                break;
+            case 'n':
+                text.append('\n');
+                break;
+            case 'r':
+                text.append('\r');
+                break;
+            case 't':
+                text.append('\t');
+                break;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("invalid unicode escape");
+                    }
+                    code = code * 16 + digit;
+                }
+                text.append((char) code);
+                break;
+            default:
+                throw error("invalid escape " + describe(c));
+        }
+    }
+
+    private void skipValue() throws IOException {
+        int c = nextNonWhitespace();
+        if (c == '"') {
+            skipString();
+        } else if (c == '{' || c == '[') {
+            int depth = 1;
+            while (depth > 0) {
+                c = read();
+                if (c == -1) {
+                    throw error("unterminated value");
+                } else if (c == '"') {
+                    skipString();
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+            }
+        } else if (isNumberChar(c) || Character.isLetter(c)) {
+            // Numbers and the literals true, false and null
+            while (isNumberChar(c) || Character.isLetter(c)) {
+                c = read();
+            }
+            unread(c);
+        } else {
+            throw error("expected a value but found " + describe(c));
+        }
+    }
+
+    private void skipString() throws IOException {
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                throw error("unterminated string");
+            } else if (c == '\\') {
+                read();
+            }
+        }
+    }
+
+    private void finish() throws IOException {
+        finished = true;
+        arrayRead = true;
+        if (envelopeOpen) {
+            // Read the envelope fields that follow the array
+            readEnvelopeFields(nextNonWhitespace());
+        }
+        int c = nextNonWhitespace();
+        if (c != -1) {
+            throw error("unexpected " + describe(c) + " after the end of the array");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            c = read();
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        offset++;
+        return buffer[position++];
+    }
+
+    private void unread(int c) {
+        if (c != -1) {
+            position--;
+            offset--;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private static String describe(int c) {
+        return c == -1 ? "end of input" : "'" + (char) c + "'";
+    }
+
+    private IllegalStateException error(String reason) {
+        return new IllegalStateException("Failed to parse fruit data from response: " + reason
+            + " at offset " + offset);
+    }
+}
@@ -0,0 +1,49 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch lookup by name: the fruits that were found and the names that were not.
+ */
+public final class FruitLookupResult {
+    private final Map<String, Fruit> found;
+    private final List<String> missing;
+
+    FruitLookupResult(Map<String, Fruit> found, List<String> missing) {
+        this.found = Collections.unmodifiableMap(found);
+        this.missing = Collections.unmodifiableList(missing);
+    }
+
+    /**
+     * Returns the fruits found, keyed by the names as they were requested.
+     * The map ignores case, so {@code getFound().get("APPLE")} finds a fruit requested as "apple".
+     *
+     * @return the found fruits
+     */
+    public Map<String, Fruit> getFound() {
+        return found;
+    }
+
+    /**
+     * Returns the requested names without a matching fruit, in request order and without
+     * case-insensitive duplicates.
+     *
+     * @return the missing names
+     */
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    /**
+     * Tells whether every requested name was found.
+     *
+     * @return true if no name is missing
+     */
+    public boolean isComplete() {
+        return missing.isEmpty();
+    }
+}
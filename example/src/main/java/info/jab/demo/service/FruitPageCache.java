@@ -0,0 +1,70 @@
+package info.jab.demo.service;
+
+import info.jab.demo.http.Validators;
+import info.jab.demo.model.Fruit;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers the parsed fruits of each page together with the validators it was served with,
+ * so a {@code 304 Not Modified} answer can be replayed without downloading or parsing the page.
+ * The least recently used pages are dropped once the maximum number of pages is reached.
+ */
+final class FruitPageCache {
+    private final Map<String, Page> pages;
+
+    /**
+     * A fully read page.
+     */
+    static final class Page {
+        private final Validators validators;
+        private final List<Fruit> fruits;
+        private final String nextPage;
+
+        Page(Validators validators, List<Fruit> fruits, String nextPage) {
+            this.validators = validators;
+            this.fruits = List.copyOf(fruits);
+            this.nextPage = nextPage;
+        }
+
+        Validators getValidators() {
+            return validators;
+        }
+
+        List<Fruit> getFruits() {
+            return fruits;
+        }
+
+        /**
+         * Returns the resolved URL of the page that followed this one.
+         *
+         * @return the next page URL, or null if this was the last page
+         */
+        String getNextPage() {
+            return nextPage;
+        }
+    }
+
+    FruitPageCache(int maxPages) {
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Page> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    synchronized Page get(String url) {
+        return pages.get(url);
+    }
+
+    synchronized void put(String url, Page page) {
+        pages.put(url, page);
+    }
+
+    synchronized int size() {
+        return pages.size();
+    }
+}
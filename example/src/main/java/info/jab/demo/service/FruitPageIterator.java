@@ -0,0 +1,229 @@
+package info.jab.demo.service;
+
+import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.StreamedResponse;
+import info.jab.demo.http.Validators;
+import info.jab.demo.model.Fruit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the fruits of a paginated fruit service, fetching pages on demand.
+ *
+ * Only the current page is open at any time and fruits are parsed as the iterator
+ * advances. The next page is taken from a {@code Link} header with {@code rel="next"},
+ * else from the {@code next} or {@code nextCursor} field of the response envelope; a
+ * cursor is sent as the {@code cursor} query parameter of the service URL.
+ *
+ * With a {@link FruitPageCache}, pages remembered there are requested conditionally and a
+ * {@code 304 Not Modified} answer replays the remembered fruits and next page instead of
+ * parsing a body. Only an iterator that remembers pages adds to the cache: it buffers the
+ * fruits of every page served with an {@code ETag} or {@code Last-Modified} header and
+ * stores the page once it has been read to the end. That buffering is meant for callers
+ * that collect every fruit anyway; a plain stream leaves it off to hold one fruit at a time.
+ */
+final class FruitPageIterator implements Iterator<Fruit>, Closeable {
+    private final HttpClient httpClient;
+    private final String serviceUrl;
+    private final FruitPageCache pageCache;
+    private final boolean rememberPages;
+    private String pageUrl;
+    private StreamedResponse response;
+    private FruitJsonParser parser;
+    private Validators validators;
+    private List<Fruit> pageFruits;
+    private FruitPageCache.Page replayed;
+    private Iterator<Fruit> replay;
+    private Fruit next;
+
+    /**
+     * Opens the first page.
+     *
+     * @param httpClient the client used to fetch the pages
+     * @param serviceUrl the URL of the first page
+     * @throws IOException if the first page cannot be fetched
+     */
+    FruitPageIterator(HttpClient httpClient, String serviceUrl) throws IOException {
+        this(httpClient, serviceUrl, null, false);
+    }
+
+    /**
+     * Opens the first page, revalidating the pages remembered by a page cache.
+     *
+     * @param httpClient    the client used to fetch the pages
+     * @param serviceUrl    the URL of the first page
+     * @param pageCache     the pages of earlier iterations, or null to always download
+     * @param rememberPages whether to buffer the pages read and add them to the page cache
+     * @throws IOException if the first page cannot be fetched
+     */
+    FruitPageIterator(HttpClient httpClient, String serviceUrl, FruitPageCache pageCache, boolean rememberPages)
+            throws IOException {
+        this.httpClient = httpClient;
+        this.serviceUrl = serviceUrl;
+        this.pageCache = pageCache;
+        this.rememberPages = pageCache != null && rememberPages;
+        open(serviceUrl);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UncheckedIOException if a page cannot be fetched or read
+     * @throws IllegalStateException if a page cannot be parsed
+     */
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null && (parser != null || replay != null)) {
+                if (replay != null) {
+                    if (replay.hasNext()) {
+                        next = replay.next();
+                    } else {
+                        String nextPage = replayed.getNextPage();
+                        close();
+                        if (nextPage != null) {
+                            open(nextPage);
+                        }
+                    }
+                    continue;
+                }
+                next = parser.next();
+                if (next == null) {
+                    String nextPage = nextPageUrl(serviceUrl, pageUrl, response, parser);
+                    if (pageFruits != null) {
+                        pageCache.put(pageUrl, new FruitPageCache.Page(validators, pageFruits, nextPage));
+                    }
+                    close();
+                    if (nextPage != null) {
+                        open(nextPage);
+                    }
+                } else if (pageFruits != null) {
+                    pageFruits.add(next);
+                }
+            }
+            return next != null;
+        } catch (IOException e) {
+            closeQuietly(e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Fruit next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Fruit fruit = next;
+        next = null;
+        return fruit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser = null;
+        pageFruits = null;
+        replay = null;
+        replayed = null;
+        if (response != null) {
+            StreamedResponse current = response;
+            response = null;
+            current.close();
+        }
+    }
+
+    private void open(String url) throws IOException {
+        pageUrl = url;
+        FruitPageCache.Page cached = pageCache == null ? null : pageCache.get(url);
+        if (cached == null) {
+            response = httpClient.open(url);
+        } else {
+            response = httpClient.open(url, cached.getValidators().toRequestHeaders());
+            if (response.isNotModified()) {
+                close();
+                replayed = cached;
+                replay = cached.getFruits().iterator();
+                return;
+            }
+        }
+        validators = rememberPages ? Validators.of(response) : null;
+        pageFruits = validators == null ? null : new ArrayList<>();
+        parser = new FruitJsonParser(response.getBody());
+    }
+
+    /**
+     * Returns the page that follows a page whose body has been parsed to the end.
+     *
+     * @param serviceUrl the URL of the first page, which cursors are appended to
+     * @param pageUrl    the URL of the page
+     * @param response   the response of the page
+     * @param parser     the parser that read the page
+     * @return the resolved URL of the next page, or null if this was the last page
+     */
+    static String nextPageUrl(String serviceUrl, String pageUrl, StreamedResponse response, FruitJsonParser parser) {
+        String link = nextLink(response.getHeader("Link"));
+        if (link == null) {
+            link = parser.getNextPage();
+        }
+        if (link != null) {
+            String resolved = URI.create(pageUrl).resolve(link.trim()).toString();
+            // A page that links to itself would never end
+            return resolved.equals(pageUrl) ? null : resolved;
+        }
+        String cursor = parser.getNextCursor();
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        return serviceUrl + (serviceUrl.contains("?") ? "&" : "?") + "cursor="
+            + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Extracts the {@code rel="next"} target of a {@code Link} header.
+     *
+     * @param header the header value, for example {@code <https://host/fruits?page=2>; rel="next"}
+     * @return the target, or null if there is none
+     */
+    static String nextLink(String header) {
+        if (header == null) {
+            return null;
+        }
+        for (String link : header.split(",(?=\\s*<)")) {
+            int start = link.indexOf('<');
+            int end = link.indexOf('>', start + 1);
+            if (start < 0 || end < 0) {
+                continue;
+            }
+            for (String parameter : link.substring(end + 1).split(";")) {
+                String[] pair = parameter.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].trim().equalsIgnoreCase("rel")) {
+                    for (String rel : pair[1].trim().replace("\"", "").split("\\s+")) {
+                        if (rel.equalsIgnoreCase("next")) {
+                            return link.substring(start + 1, end);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void closeQuietly(Exception failure) {
+        try {
+            close();
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+}
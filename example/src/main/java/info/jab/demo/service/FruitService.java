@@ -1,23 +1,39 @@
 package info.jab.demo.service;
 
 import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.StreamedResponse;
+import info.jab.demo.http.Validators;
 import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for retrieving fruit data from a remote API.
  */
 public class FruitService {
-    private static final Pattern FRUIT_PATTERN = 
-        Pattern.compile("\\{\\s*\"name\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*\"color\"\\s*:\\s*\"([^\"]+)\"\\s*,\\s*\"weight\"\\s*:\\s*([\\d.]+)\\s*\\}");
+    private static final int DEFAULT_MAX_CONCURRENCY = 64;
+    private static final Duration DEFAULT_DEADLINE = Duration.ofSeconds(10);
+    private static final int MAX_REVALIDATED_PAGES = 1024;
     
     private final HttpClient httpClient;
     private final String serviceUrl;
+    final FruitPageCache pageCache = new FruitPageCache(MAX_REVALIDATED_PAGES);
+    private volatile FruitIndex index;
     
     /**
      * Creates a new FruitService with the specified HTTP client and service URL.
@@ -31,59 +47,291 @@ public class FruitService {
     }
     
     /**
-     * Fetches all fruits from the service.
+     * Fetches all fruits from the service, following pagination.
+     * 
+     * Pages served with an {@code ETag} or {@code Last-Modified} header are requested
+     * conditionally on later calls, and an unchanged page is answered from the fruits
+     * parsed the last time instead of being downloaded again.
      *
      * @return a list of fruits
      * @throws IOException if a communication error occurs
      * @throws IllegalStateException if the response cannot be parsed
      */
     public List<Fruit> getAllFruits() throws IOException {
-        String response = httpClient.get(serviceUrl);
-        return parseFruits(response);
+        return fetchFruits(serviceUrl);
     }
     
     /**
-     * Parses a JSON response containing fruit data.
+     * Streams all fruits from the service, following pagination on demand.
+     * 
+     * The first page is requested immediately; later pages are only requested once the
+     * stream has consumed the previous one, so a short-circuiting stream such as
+     * {@code streamFruits().filter(...).findFirst()} stops fetching as soon as it has its
+     * answer. The stream must be closed, for example with try-with-resources, to release
+     * the connection of the current page. Pages remembered by {@link #getAllFruits()} are
+     * revalidated, but the stream never remembers pages itself, so it holds no more than
+     * the current fruit.
+     *
+     * @return a lazy, ordered stream of fruits
+     * @throws IOException if the first page cannot be fetched
+     * @see FruitPageIterator
+     */
+    public Stream<Fruit> streamFruits() throws IOException {
+        return streamFruits(serviceUrl, false);
+    }
+    
+    private Stream<Fruit> streamFruits(String url, boolean rememberPages) throws IOException {
+        FruitPageIterator pages = new FruitPageIterator(httpClient, url, pageCache, rememberPages);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pages,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                try {
+                    pages.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+    
+    /**
+     * Fetches all pages of one service, parsing them while the responses arrive.
+     * 
+     * Every fetch of a whole catalog goes through this method, so subclasses can override
+     * it to cache or share the results.
+     *
+     * @param url the URL of the fruit service
+     * @return a list of fruits
+     * @throws IOException if a communication error occurs
+     * @throws IllegalStateException if a response cannot be parsed
+     */
+    protected List<Fruit> fetchFruits(String url) throws IOException {
+        try (Stream<Fruit> fruits = streamFruits(url, true)) {
+            return fruits.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    /**
+     * Loads all fruits from the service into a columnar catalog.
      * 
-     * Note: This is a simple parser implementation for demonstration purposes.
-     * In a real application, you would typically use a JSON library.
+     * Pages are parsed while they arrive and each fruit is appended to the catalog
+     * columns right away, so no list of fruit objects is held for large catalogs.
+     *
+     * @return the catalog, in service order
+     * @throws IOException if a communication error occurs
+     * @throws IllegalStateException if a response cannot be parsed
+     */
+    public FruitCatalog getCatalog() throws IOException {
+        FruitCatalog.Builder catalog = FruitCatalog.builder();
+        try (Stream<Fruit> fruits = streamFruits()) {
+            fruits.forEach(catalog::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return catalog.build();
+    }
+
+    /**
+     * Loads the fruits into a catalog and returns parallel aggregations over it.
+     *
+     * @return the analytics of the current fruits
+     * @throws IOException if a communication error occurs
+     */
+    public FruitAnalytics getAnalytics() throws IOException {
+        return new FruitAnalytics(getCatalog());
+    }
+    
+    /**
+     * Fetches the fruits of several fruit services concurrently and merges them into one list,
+     * with at most {@value #DEFAULT_MAX_CONCURRENCY} requests in flight and a deadline of
+     * 10 seconds per request.
+     *
+     * @param urls the URLs of the fruit services
+     * @return the fruits of all services, in the order of the URLs
+     * @throws IOException if any request fails or exceeds its deadline
+     * @throws IllegalStateException if a response cannot be parsed
+     * @see #getAllFruits(List, int, Duration)
+     */
+    public List<Fruit> getAllFruits(List<String> urls) throws IOException {
+        return getAllFruits(urls, DEFAULT_MAX_CONCURRENCY, DEFAULT_DEADLINE);
+    }
+    
+    /**
+     * Fetches the fruits of several fruit services concurrently and merges them into one list.
+     * 
+     * Each blocking request runs on its own virtual thread when the runtime is Java 21 or
+     * later, or on a bounded pool of platform threads otherwise. Setting the
+     * {@code fruit.fanout.virtualThreads} system property to {@code false} forces platform threads.
+     *
+     * @param urls           the URLs of the fruit services
+     * @param maxConcurrency the maximum number of requests in flight at once
+     * @param deadline       the maximum duration of each request once it has started
+     * @return the fruits of all services, in the order of the URLs
+     * @throws IOException if any request fails or exceeds its deadline
+     * @throws IllegalStateException if a response cannot be parsed
+     */
+    public List<Fruit> getAllFruits(List<String> urls, int maxConcurrency, Duration deadline) throws IOException {
+        List<List<Fruit>> responses = new FanOutFetcher(maxConcurrency, deadline)
+            .fetchAll(urls, this::fetchFruits);
+        
+        List<Fruit> fruits = new ArrayList<>();
+        for (List<Fruit> response : responses) {
+            fruits.addAll(response);
+        }
+        return fruits;
+    }
+    
+    /**
+     * Fetches all fruits from the service without blocking the calling thread.
+     * 
+     * Pages are followed and revalidated as by {@link #getAllFruits()}, but each page is
+     * requested with {@link HttpClient#openAsync(String, Map)} once the previous one has
+     * been parsed, so no thread waits for a response.
+     *
+     * @return a future completed with the list of fruits, or exceptionally with an
+     *         {@link IOException} or {@link IllegalStateException}
+     */
+    public CompletableFuture<List<Fruit>> getAllFruitsAsync() {
+        return fetchPagesAsync(serviceUrl, new ArrayList<>());
+    }
+    
+    /**
+     * Fetches a page and the pages after it, appending their fruits to a list.
+     *
+     * @param url    the URL of the page
+     * @param fruits the fruits of the pages before it
+     * @return a future completed with the list once the last page has been added
+     */
+    private CompletableFuture<List<Fruit>> fetchPagesAsync(String url, List<Fruit> fruits) {
+        FruitPageCache.Page cached = pageCache.get(url);
+        Map<String, String> headers = cached == null ? Map.of() : cached.getValidators().toRequestHeaders();
+        return httpClient.openAsync(url, headers).thenCompose(response -> {
+            String nextPage;
+            if (response.isNotModified()) {
+                fruits.addAll(cached.getFruits());
+                nextPage = cached.getNextPage();
+            } else {
+                nextPage = readPage(url, response, fruits);
+            }
+            return nextPage == null ? CompletableFuture.completedFuture(fruits) : fetchPagesAsync(nextPage, fruits);
+        });
+    }
+    
+    /**
+     * Parses a page whose body is in memory and remembers it if it carries validators.
+     *
+     * @param url      the URL of the page
+     * @param response the response of the page
+     * @param fruits   the list to append the fruits of the page to
+     * @return the URL of the next page, or null if this was the last page
+     */
+    private String readPage(String url, StreamedResponse response, List<Fruit> fruits) {
+        try (FruitJsonParser parser = new FruitJsonParser(response.getBody())) {
+            List<Fruit> page = parser.readAll();
+            String nextPage = FruitPageIterator.nextPageUrl(serviceUrl, url, response, parser);
+            Validators validators = Validators.of(response);
+            if (validators != null) {
+                pageCache.put(url, new FruitPageCache.Page(validators, page, nextPage));
+            }
+            fruits.addAll(page);
+            return nextPage;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    /**
+     * Parses a JSON response containing fruit data.
      *
      * @param jsonResponse the JSON response to parse
      * @return a list of parsed Fruit objects
      * @throws IllegalStateException if the response cannot be parsed
      */
     List<Fruit> parseFruits(String jsonResponse) {
-        List<Fruit> fruits = new ArrayList<>();
-        Matcher matcher = FRUIT_PATTERN.matcher(jsonResponse);
-        
-        while (matcher.find()) {
-            String name = matcher.group(1);
-            String color = matcher.group(2);
-            double weight = Double.parseDouble(matcher.group(3));
-            
-            fruits.add(new Fruit(name, color, weight));
+        try {
+            return new FruitJsonParser(new StringReader(jsonResponse)).readAll();
+        } catch (IOException e) {
+            // Reading from a string cannot fail
+            throw new UncheckedIOException(e);
         }
-        
-        if (fruits.isEmpty() && !jsonResponse.trim().equals("[]")) {
-            throw new IllegalStateException("Failed to parse fruit data from response: " + jsonResponse);
+    }
+    
+    /**
+     * Returns the in-memory index used by the lookup methods, loading the fruit list on
+     * first use. Later lookups are answered from memory until {@link #refresh()} is called.
+     *
+     * @return the fruit index
+     * @throws IOException if a communication error occurs
+     */
+    public FruitIndex getIndex() throws IOException {
+        FruitIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new FruitIndex(getAllFruits());
+                    index = current;
+                }
+            }
         }
-        
-        return fruits;
+        return current;
+    }
+
+    /**
+     * Reloads the fruit list and replaces the index used by the lookup methods.
+     *
+     * @return the new fruit index
+     * @throws IOException if a communication error occurs
+     */
+    public FruitIndex refresh() throws IOException {
+        FruitIndex current = new FruitIndex(getAllFruits());
+        index = current;
+        return current;
     }
     
     /**
-     * Finds a fruit by name.
+     * Finds a fruit by name, ignoring case.
      *
      * @param name the name of the fruit to find
      * @return the found fruit, or null if not found
      * @throws IOException if a communication error occurs
      */
     public Fruit findByName(String name) throws IOException {
-        List<Fruit> fruits = getAllFruits();
-        
-        return fruits.stream()
-                .filter(fruit -> fruit.getName().equalsIgnoreCase(name))
-                .findFirst()
-                .orElse(null);
+        return getIndex().findByName(name);
+    }
+
+    /**
+     * Finds the fruits of many names with at most one fetch of the catalog, ignoring case.
+     *
+     * @param names the names to find
+     * @return the fruits found and the names that were not
+     * @throws IOException if a communication error occurs
+     */
+    public FruitLookupResult findByNames(Collection<String> names) throws IOException {
+        return getIndex().findByNames(names);
+    }
+
+    /**
+     * Finds the fruits of a color, ignoring case.
+     *
+     * @param color the color
+     * @return the fruits of that color, empty if there are none
+     * @throws IOException if a communication error occurs
+     */
+    public List<Fruit> findByColor(String color) throws IOException {
+        return getIndex().findByColor(color);
+    }
+
+    /**
+     * Finds the fruits whose weight lies in a range.
+     *
+     * @param minWeight the lowest weight, inclusive
+     * @param maxWeight the highest weight, inclusive
+     * @return the matching fruits ordered by weight
+     * @throws IOException if a communication error occurs
+     */
+    public List<Fruit> findByWeightRange(double minWeight, double maxWeight) throws IOException {
+        return getIndex().findByWeightRange(minWeight, maxWeight);
     }
-} 
\ No newline at end of file
+}
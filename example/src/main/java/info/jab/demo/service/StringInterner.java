@@ -0,0 +1,71 @@
+package info.jab.demo.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free dictionary that returns one shared {@code String} per distinct value.
+ *
+ * The table is direct-mapped: each value hashes to a single slot, and a new value simply
+ * replaces the one in its slot. Memory therefore stays bounded whatever the number of
+ * distinct values, while low-cardinality values such as colors stay resident and are
+ * returned without allocating. Lookups compare the characters in place, so a value that is
+ * already interned never becomes a {@code String} again. Values longer than
+ * {@value #MAX_LENGTH} characters are not interned.
+ */
+final class StringInterner {
+
+    /**
+     * Interner shared by all parsers, so catalogs parsed on different threads share their strings.
+     */
+    static final StringInterner SHARED = new StringInterner(4096);
+
+    static final int MAX_LENGTH = 64;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+
+    /**
+     * Creates an interner.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    StringInterner(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the shared string with the given characters.
+     *
+     * @param chars the characters
+     * @return an interned string equal to the characters, or a new string if they are too long
+     */
+    String intern(CharSequence chars) {
+        int length = chars.length();
+        if (length > MAX_LENGTH) {
+            return chars.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        // Spread the high bits, as HashMap does, before masking
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String current = slots.get(slot);
+        if (current != null && current.contentEquals(chars)) {
+            return current;
+        }
+        String value = chars.toString();
+        // A lost race only means another value keeps the slot
+        slots.compareAndSet(slot, current, value);
+        return value;
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,66 @@
+package info.jab.demo.service;
+
+/**
+ * Count, sum, minimum, maximum and mean of a set of fruit weights.
+ */
+public final class WeightStatistics {
+
+    static final WeightStatistics EMPTY = new WeightStatistics(0, 0, Double.NaN, Double.NaN);
+
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    WeightStatistics(long count, double sum, double min, double max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the lowest weight.
+     *
+     * @return the minimum, or NaN if there are no weights
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the highest weight.
+     *
+     * @return the maximum, or NaN if there are no weights
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the average weight.
+     *
+     * @return the mean, or NaN if there are no weights
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightStatistics{" +
+               "count=" + count +
+               ", sum=" + sum +
+               ", min=" + min +
+               ", max=" + max +
+               '}';
+    }
+}
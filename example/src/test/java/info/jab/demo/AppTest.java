@@ -1,19 +1,25 @@
 package info.jab.demo;
 
 import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
+import info.jab.demo.model.FruitSnapshot;
 import info.jab.demo.service.FruitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -95,6 +101,85 @@ public class AppTest {
         verify(mockFruitService, never()).findByName(anyString());
     }
     
+    @Test
+    void testRunWithoutSnapshotFetchesAndSavesIt(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("fruits.snapshot");
+        when(mockFruitService.getCatalog()).thenReturn(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))));
+        
+        // Act
+        app.run(mockFruitService, snapshotFile);
+        
+        // Assert
+        String output = outputStream.toString();
+        assertTrue(output.contains("Found 1 fruits:"));
+        assertTrue(output.contains("Found apple:"));
+        assertEquals(1, FruitSnapshot.read(snapshotFile).getCatalog().size());
+    }
+
+    @Test
+    void testRunFromSnapshotSurvivesUpstreamOutage(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(
+            new Fruit("Apple", "Red", 150.5),
+            new Fruit("Banana", "Yellow", 120.0))), snapshotFile);
+        when(mockFruitService.getCatalog()).thenThrow(new IOException("Network error"));
+        
+        // Act
+        app.run(mockFruitService, snapshotFile);
+        
+        // Assert
+        String output = outputStream.toString();
+        assertTrue(output.contains("Loaded snapshot"));
+        assertTrue(output.contains("Banana (Yellow, 120.0g)"));
+        assertEquals(2, FruitSnapshot.read(snapshotFile).getCatalog().size());
+    }
+
+    @Test
+    void testRunFromSnapshotRefreshesIt(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), snapshotFile);
+        when(mockFruitService.getCatalog()).thenReturn(FruitCatalog.of(List.of(
+            new Fruit("Apple", "Red", 150.5),
+            new Fruit("Cherry", "Red", 5.0))));
+        
+        // Act
+        app.run(mockFruitService, snapshotFile);
+        
+        // Assert - the saved catalog is printed, the fresh one is saved for the next start
+        String output = outputStream.toString();
+        assertTrue(output.contains("Found 1 fruits:"));
+        assertTrue(output.contains("Snapshot refreshed"));
+        assertEquals(2, FruitSnapshot.read(snapshotFile).getCatalog().size());
+    }
+    
+    @Test
+    void testRunFromSnapshotDoesNotWaitForSlowRefresh(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path snapshotFile = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), snapshotFile);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockFruitService.getCatalog()).thenAnswer(invocation -> {
+            release.await();
+            throw new IOException("Network error");
+        });
+        
+        try {
+            // Act
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> app.run(mockFruitService, snapshotFile));
+            
+            // Assert - the saved catalog was printed and kept while the service hangs
+            String output = outputStream.toString();
+            assertTrue(output.contains("Found apple:"));
+            assertFalse(output.contains("Snapshot refreshed"));
+            assertEquals(1, FruitSnapshot.read(snapshotFile).getCatalog().size());
+        } finally {
+            release.countDown();
+        }
+    }
+    
     @Test
     void restoreSystemStreams() {
         // Always restore System.out after tests
@@ -0,0 +1,84 @@
+package info.jab.demo.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentEncodingTest {
+
+    private static final String JSON = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]".repeat(200);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "x-gzip", " GZIP "})
+    void testDecodeGzip(String encoding) throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Act & Assert
+        assertEquals(JSON, decode(encoding, compressed.toByteArray()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void testDecodeZlibAndRawDeflate(boolean raw) throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, raw);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+        } finally {
+            deflater.end();
+        }
+
+        // Act & Assert
+        assertEquals(JSON, decode("deflate", compressed.toByteArray()));
+    }
+
+    @Test
+    void testIdentityAndEmptyBodiesArePassedThrough() throws IOException {
+        // Act & Assert
+        assertEquals(JSON, decode(null, JSON.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(JSON, decode("identity", JSON.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("", decode("gzip", new byte[0]));
+    }
+
+    @Test
+    void testUnsupportedEncoding() {
+        // Act
+        IOException exception = assertThrows(IOException.class,
+                () -> ContentEncoding.decode("br", InputStream.nullInputStream()));
+
+        // Assert
+        assertEquals("Unsupported content encoding: br", exception.getMessage());
+    }
+
+    @Test
+    void testZlibHeaderDetection() {
+        // Act & Assert
+        assertTrue(ContentEncoding.isZlibHeader(0x78, 0x9C));
+        assertTrue(ContentEncoding.isZlibHeader(0x78, 0x01));
+        assertFalse(ContentEncoding.isZlibHeader(0x78, 0x00));
+        assertFalse(ContentEncoding.isZlibHeader(0x1F, 0x8B));
+        assertFalse(ContentEncoding.isZlibHeader(0x78, -1));
+    }
+
+    private static String decode(String encoding, byte[] body) throws IOException {
+        try (InputStream in = ContentEncoding.decode(encoding, new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
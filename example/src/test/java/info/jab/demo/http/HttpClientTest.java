@@ -7,10 +7,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -49,6 +54,129 @@ class HttpClientTest {
         verify(mockConnection).disconnect();
     }
     
+    @Test
+    void testGetKeepsLineBreaks() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(
+                "[\n  {}\n]".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        String result = httpClient.get("http://test.com/api");
+
+        // Assert
+        assertEquals("[\n  {}\n]", result);
+    }
+
+    @Test
+    void testOpenStreamsBodyWithoutDisconnecting() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getHeaderFields()).thenReturn(Map.of("Content-Type", List.of("application/json")));
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(
+                "Test Response".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api")) {
+            // Assert
+            assertEquals(200, response.getStatusCode());
+            assertEquals("application/json", response.getHeader("content-type"));
+            assertEquals("Test Response", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(mockConnection, never()).disconnect();
+    }
+
+    @Test
+    void testOpenNegotiatesAndDecodesGzip() throws IOException {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write("Test Response".getBytes(StandardCharsets.UTF_8));
+        }
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getContentEncoding()).thenReturn("gzip");
+        when(mockConnection.getHeaderFields()).thenReturn(Map.of("Content-Encoding", List.of("gzip")));
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(compressed.toByteArray()));
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api")) {
+            // Assert
+            assertEquals("Test Response", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(mockConnection).setRequestProperty("Accept-Encoding", "gzip, deflate");
+    }
+
+    @Test
+    void testOpenFailureResponseCodeDisconnects() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_UNAVAILABLE);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> httpClient.open("http://test.com/api"));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 503", exception.getMessage());
+        verify(mockConnection).disconnect();
+    }
+
+    @Test
+    void testOpenConditionalReturnsNotModified() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+        when(mockConnection.getHeaderFields()).thenReturn(Map.of("ETag", List.of("\"v1\"")));
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api",
+                new Validators("\"v1\"", null).toRequestHeaders())) {
+            // Assert
+            assertTrue(response.isNotModified());
+            assertEquals(-1, response.getBody().read());
+        }
+        verify(mockConnection).setRequestProperty("If-None-Match", "\"v1\"");
+    }
+
+    @Test
+    void testOpenUnconditionalRejectsNotModified() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> httpClient.open("http://test.com/api"));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 304", exception.getMessage());
+    }
+
+    @Test
+    void testGetAsyncRunsRequestOffCallingThread() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(
+                "Test Response".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        String result = httpClient.getAsync("http://test.com/api").join();
+
+        // Assert
+        assertEquals("Test Response", result);
+        verify(mockConnection).disconnect();
+    }
+
+    @Test
+    void testGetAsyncFailureResponseCode() throws IOException {
+        // Arrange
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> httpClient.getAsync("http://test.com/api").join());
+
+        // Assert
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("HTTP GET request failed"));
+    }
+    
     @Test
     void testGetFailureResponseCode() throws IOException {
         // Setup mock connection
@@ -0,0 +1,58 @@
+package info.jab.demo.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(HttpTransport.PROPERTY);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "pooled, POOLED",
+        "POOLED, POOLED",
+        "url-connection, URL_CONNECTION",
+        "' url_connection ', URL_CONNECTION"
+    })
+    void testParse(String value, HttpTransport expected) {
+        assertEquals(expected, HttpTransport.parse(value));
+    }
+
+    @Test
+    void testDefaultsToUrlConnection() {
+        // Act
+        HttpClient client = HttpClient.create();
+
+        // Assert
+        assertEquals(HttpTransport.URL_CONNECTION, HttpTransport.configured());
+        assertEquals(HttpClient.class, client.getClass());
+    }
+
+    @Test
+    void testSystemPropertySelectsPooledTransport() {
+        // Arrange
+        System.setProperty(HttpTransport.PROPERTY, "pooled");
+
+        // Act
+        HttpClient client = HttpClient.create();
+
+        // Assert
+        assertInstanceOf(PooledHttpClient.class, client);
+    }
+
+    @Test
+    void testUnknownTransportIsRejected() {
+        // Arrange
+        System.setProperty(HttpTransport.PROPERTY, "carrier-pigeon");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, HttpTransport::configured);
+    }
+}
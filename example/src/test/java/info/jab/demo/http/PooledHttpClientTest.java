@@ -0,0 +1,333 @@
+package info.jab.demo.http;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PooledHttpClientTest {
+
+    @Mock
+    private HttpResponse<InputStream> mockStreamingResponse;
+
+    @Mock
+    private HttpResponse<byte[]> mockAsyncResponse;
+
+    private final List<HttpRequest> sentRequests = new ArrayList<>();
+    private PooledHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = new PooledHttpClient() {
+            @Override
+            protected HttpResponse<InputStream> sendStreaming(HttpRequest request) {
+                sentRequests.add(request);
+                return mockStreamingResponse;
+            }
+
+            @Override
+            protected CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+                sentRequests.add(request);
+                return CompletableFuture.completedFuture(mockAsyncResponse);
+            }
+        };
+    }
+
+    @Test
+    void testGetSuccessful() throws IOException {
+        // Arrange
+        respondWith(200, Map.of(), "Test Response".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String result = httpClient.get("http://test.com/api");
+
+        // Assert
+        assertEquals("Test Response", result);
+        HttpRequest request = sentRequests.get(0);
+        assertEquals("GET", request.method());
+        assertEquals(URI.create("http://test.com/api"), request.uri());
+        assertEquals("application/json", request.headers().firstValue("Accept").orElse(null));
+        assertTrue(request.timeout().isPresent());
+    }
+
+    @Test
+    void testGetFailureResponseCode() throws IOException {
+        // Arrange
+        InputStream body = mock(InputStream.class);
+        when(mockStreamingResponse.statusCode()).thenReturn(404);
+        when(mockStreamingResponse.body()).thenReturn(body);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> httpClient.get("http://test.com/api"));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 404", exception.getMessage());
+        verify(body).close();
+    }
+
+    @Test
+    void testGetDecodesGzipWhileReading() throws IOException {
+        // Arrange
+        respondWith(200, Map.of("content-encoding", List.of("gzip")), gzip("Test Response"));
+
+        // Act
+        String result = httpClient.get("http://test.com/api");
+
+        // Assert
+        assertEquals("Test Response", result);
+    }
+
+    @Test
+    void testOpenStreamsBody() throws IOException {
+        // Arrange
+        when(mockStreamingResponse.statusCode()).thenReturn(200);
+        when(mockStreamingResponse.headers()).thenReturn(HttpHeaders.of(
+            Map.of("content-type", List.of("application/json")), (name, value) -> true));
+        when(mockStreamingResponse.body()).thenReturn(new ByteArrayInputStream(
+            "Test Response".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api")) {
+            // Assert
+            assertEquals("application/json", response.getHeader("Content-Type"));
+            assertEquals("Test Response", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testOpenNegotiatesAndDecodesGzip() throws IOException {
+        // Arrange
+        respondWith(200, Map.of("content-encoding", List.of("gzip")), gzip("Test Response"));
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api")) {
+            // Assert
+            assertEquals("Test Response", new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals("gzip, deflate", sentRequests.get(0).headers().firstValue("Accept-Encoding").orElseThrow());
+    }
+
+    @Test
+    void testOpenFailureResponseCodeClosesBody() throws IOException {
+        // Arrange
+        InputStream body = mock(InputStream.class);
+        when(mockStreamingResponse.statusCode()).thenReturn(404);
+        when(mockStreamingResponse.body()).thenReturn(body);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> httpClient.open("http://test.com/api"));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 404", exception.getMessage());
+        verify(body).close();
+    }
+
+    @Test
+    void testOpenConditionalSendsValidators() throws IOException {
+        // Arrange
+        when(mockStreamingResponse.statusCode()).thenReturn(304);
+        when(mockStreamingResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(mockStreamingResponse.body()).thenReturn(InputStream.nullInputStream());
+        Validators validators = new Validators("W/\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT");
+
+        // Act
+        try (StreamedResponse response = httpClient.open("http://test.com/api", validators.toRequestHeaders())) {
+            // Assert
+            assertTrue(response.isNotModified());
+        }
+        HttpHeaders sent = sentRequests.get(0).headers();
+        assertEquals("W/\"v1\"", sent.firstValue("If-None-Match").orElseThrow());
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", sent.firstValue("If-Modified-Since").orElseThrow());
+    }
+
+    @Test
+    void testGetAsyncSuccessful() {
+        // Arrange
+        when(mockAsyncResponse.statusCode()).thenReturn(200);
+        when(mockAsyncResponse.body()).thenReturn("Test Response".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String result = httpClient.getAsync("http://test.com/api").join();
+
+        // Assert
+        assertEquals("Test Response", result);
+        assertEquals("application/json", sentRequests.get(0).headers().firstValue("Accept").orElse(null));
+    }
+
+    @Test
+    void testGetAsyncFailureResponseCode() {
+        // Arrange
+        when(mockAsyncResponse.statusCode()).thenReturn(500);
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> httpClient.getAsync("http://test.com/api").join());
+
+        // Assert
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals("HTTP GET request failed with error code: 500", exception.getCause().getMessage());
+    }
+
+    @Test
+    void testGetAsyncInvalidUrlFailsFuture() {
+        // Act
+        CompletableFuture<String> result = httpClient.getAsync("not a url");
+
+        // Assert
+        assertTrue(result.isCompletedExceptionally());
+        assertTrue(sentRequests.isEmpty());
+    }
+
+    @Test
+    void testOpenAsyncConditionalAcceptsNotModified() {
+        // Arrange
+        when(mockAsyncResponse.statusCode()).thenReturn(304);
+        when(mockAsyncResponse.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+        when(mockAsyncResponse.body()).thenReturn(new byte[0]);
+
+        // Act
+        StreamedResponse response = httpClient.openAsync("http://test.com/api", Map.of("If-None-Match", "\"v1\""))
+            .join();
+
+        // Assert
+        assertTrue(response.isNotModified());
+        assertEquals("\"v1\"", sentRequests.get(0).headers().firstValue("If-None-Match").orElseThrow());
+    }
+
+    @Test
+    void testOpenAsyncUnconditionalRejectsNotModified() {
+        // Arrange
+        when(mockAsyncResponse.statusCode()).thenReturn(304);
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> httpClient.openAsync("http://test.com/api", Map.of()).join());
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 304", exception.getCause().getMessage());
+    }
+
+    @Test
+    void testDecodedBodyHandlerDecodesGzipWithoutBlocking() throws IOException {
+        // Arrange
+        byte[] compressed = gzip("Test Response");
+        HttpResponse.BodySubscriber<byte[]> subscriber = PooledHttpClient.DECODED_BODY.apply(
+            responseInfo(200, Map.of("content-encoding", List.of("gzip"))));
+
+        // Act
+        subscriber.onSubscribe(new NoOpSubscription());
+        subscriber.onNext(List.of(ByteBuffer.wrap(compressed, 0, 5)));
+        subscriber.onNext(List.of(ByteBuffer.wrap(compressed, 5, compressed.length - 5)));
+        subscriber.onComplete();
+
+        // Assert
+        byte[] body = subscriber.getBody().toCompletableFuture().join();
+        assertEquals("Test Response", new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testDecodedBodyHandlerDiscardsUnsuccessfulBody() {
+        // Arrange
+        HttpResponse.BodySubscriber<byte[]> subscriber = PooledHttpClient.DECODED_BODY.apply(
+            responseInfo(503, Map.of("content-encoding", List.of("gzip"))));
+
+        // Act
+        subscriber.onSubscribe(new NoOpSubscription());
+        subscriber.onNext(List.of(ByteBuffer.wrap("not gzip".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+
+        // Assert
+        assertEquals(0, subscriber.getBody().toCompletableFuture().join().length);
+    }
+
+    @Test
+    void testDecodedBodyHandlerFailsOnCorruptBody() {
+        // Arrange
+        HttpResponse.BodySubscriber<byte[]> subscriber = PooledHttpClient.DECODED_BODY.apply(
+            responseInfo(200, Map.of("content-encoding", List.of("gzip"))));
+
+        // Act
+        subscriber.onSubscribe(new NoOpSubscription());
+        subscriber.onNext(List.of(ByteBuffer.wrap("not gzip".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class,
+            () -> subscriber.getBody().toCompletableFuture().join());
+        assertInstanceOf(IOException.class, exception.getCause().getCause());
+    }
+
+    @Test
+    void testGetInvalidUrl() {
+        // Act & Assert
+        assertThrows(MalformedURLException.class, () -> httpClient.get("not a url"));
+        assertTrue(sentRequests.isEmpty());
+    }
+
+    private void respondWith(int statusCode, Map<String, List<String>> headers, byte[] body) {
+        when(mockStreamingResponse.statusCode()).thenReturn(statusCode);
+        when(mockStreamingResponse.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        when(mockStreamingResponse.body()).thenReturn(new ByteArrayInputStream(body));
+    }
+
+    private static HttpResponse.ResponseInfo responseInfo(int statusCode, Map<String, List<String>> headers) {
+        return new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(headers, (name, value) -> true);
+            }
+
+            @Override
+            public java.net.http.HttpClient.Version version() {
+                return java.net.http.HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final class NoOpSubscription implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package info.jab.demo.http;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientHttpClientTest {
+
+    private static final String URL = "http://test.com/api";
+
+    @Mock
+    private HttpClient delegate;
+
+    @Test
+    void testRetriesTransientFailure() throws IOException {
+        // Arrange
+        when(delegate.get(URL))
+                .thenThrow(new HttpStatusException(503))
+                .thenThrow(new SocketTimeoutException("Read timed out"))
+                .thenReturn("Test Response");
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .backoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .build();
+
+        // Act
+        String result = client.get(URL);
+
+        // Assert
+        assertEquals("Test Response", result);
+        assertEquals(2, client.getRetryCount());
+        verify(delegate, times(3)).get(URL);
+    }
+
+    @Test
+    void testDoesNotRetryClientError() throws IOException {
+        // Arrange
+        when(delegate.get(URL)).thenThrow(new HttpStatusException(404));
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate).build();
+
+        // Act
+        HttpStatusException exception = assertThrows(HttpStatusException.class, () -> client.get(URL));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 404", exception.getMessage());
+        verify(delegate, times(1)).get(URL);
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() throws IOException {
+        // Arrange
+        when(delegate.get(URL)).thenThrow(new HttpStatusException(500));
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .maxAttempts(2)
+                .backoff(Duration.ZERO, Duration.ZERO)
+                .build();
+
+        // Act
+        HttpStatusException exception = assertThrows(HttpStatusException.class, () -> client.get(URL));
+
+        // Assert
+        assertEquals(500, exception.getStatusCode());
+        verify(delegate, times(2)).get(URL);
+    }
+
+    @Test
+    void testDeadlineBoundsSlowAttempt() throws IOException {
+        // Arrange
+        when(delegate.get(URL)).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return "Too late";
+        });
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .deadline(Duration.ofMillis(200))
+                .build();
+        long start = System.nanoTime();
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> client.get(URL));
+
+        // Assert
+        assertEquals("Request to " + URL + " exceeded the deadline of 200 ms", exception.getMessage());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+
+    @Test
+    void testHedgedRequestWinsOverSlowAttempt() throws IOException {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.get(URL)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                Thread.sleep(5000);
+                return "Slow";
+            }
+            return "Fast";
+        });
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .hedgeAfter(Duration.ofMillis(50))
+                .build();
+
+        // Act
+        String result = client.get(URL);
+
+        // Assert
+        assertEquals("Fast", result);
+        assertEquals(1, client.getHedgeCount());
+        assertEquals(0, client.getRetryCount());
+    }
+
+    @Test
+    void testWinningHedgeRecordsLatencyFromFirstLaunch() throws IOException {
+        // Arrange - every first attempt stalls, every hedge answers at once
+        AtomicInteger calls = new AtomicInteger();
+        when(delegate.get(URL)).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() % 2 == 1) {
+                Thread.sleep(5000);
+                return "Slow";
+            }
+            return "Fast";
+        });
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .hedgeAfter(Duration.ofMillis(30))
+                .build();
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Fast", client.get(URL));
+        }
+
+        // Assert - the derived hedge delay covers the wait before hedging instead of collapsing
+        assertEquals(20, client.getHedgeCount());
+        assertTrue(client.hedgeDelayNanos() >= TimeUnit.MILLISECONDS.toNanos(30));
+    }
+
+    @Test
+    void testLosingHedgedResponseIsClosed() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        AtomicBoolean loserClosed = new AtomicBoolean();
+        when(delegate.open(eq(URL), anyMap())).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                sleepUninterruptibly(300);
+                return new StreamedResponse(200, Map.of(), new ByteArrayInputStream(new byte[0]) {
+                    @Override
+                    public void close() {
+                        loserClosed.set(true);
+                    }
+                });
+            }
+            return new StreamedResponse(200, Map.of(), new ByteArrayInputStream("Fast".getBytes()));
+        });
+        ResilientHttpClient client = ResilientHttpClient.builder(delegate)
+                .hedgeAfter(Duration.ofMillis(20))
+                .build();
+
+        // Act
+        try (StreamedResponse response = client.open(URL)) {
+            assertEquals("Fast", new String(response.getBody().readAllBytes()));
+        }
+
+        // Assert
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!loserClosed.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(loserClosed.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {408, 429, 500, 502, 503, 504})
+    void testRetryableStatus(int statusCode) {
+        assertTrue(ResilientHttpClient.isRetryable(new HttpStatusException(statusCode)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 401, 403, 404, 304})
+    void testNonRetryableStatus(int statusCode) {
+        assertFalse(ResilientHttpClient.isRetryable(new HttpStatusException(statusCode)));
+    }
+
+    @Test
+    void testNonRetryableIoFailures() {
+        // Act & Assert
+        assertFalse(ResilientHttpClient.isRetryable(new MalformedURLException("no protocol")));
+        assertTrue(ResilientHttpClient.isRetryable(new SocketTimeoutException("Read timed out")));
+    }
+
+    @Test
+    void testLatencyPercentile() {
+        // Arrange
+        ResilientHttpClient.LatencyTracker tracker = new ResilientHttpClient.LatencyTracker(100);
+        for (int i = 1; i <= 150; i++) {
+            tracker.record(i);
+        }
+
+        // Act & Assert - only the latest 100 samples, 51 to 150, are kept
+        assertEquals(145, tracker.percentile(0.95, 20));
+        assertEquals(-1, new ResilientHttpClient.LatencyTracker(100).percentile(0.95, 1));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ResilientHttpClient.builder(delegate).maxAttempts(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> ResilientHttpClient.builder(delegate).backoff(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> ResilientHttpClient.builder(delegate).deadline(Duration.ZERO));
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                // Keep the attempt running as a blocking read would
+            }
+        }
+    }
+}
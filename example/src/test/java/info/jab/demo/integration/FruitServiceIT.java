@@ -1,6 +1,7 @@
 package info.jab.demo.integration;
 
 import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.PooledHttpClient;
 import info.jab.demo.model.Fruit;
 import info.jab.demo.service.FruitService;
 import org.junit.jupiter.api.AfterEach;
@@ -12,8 +13,13 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.verification.LoggedRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
@@ -81,6 +87,136 @@ class FruitServiceIT {
                 .withHeader("Accept", equalTo("application/json")));
     }
 
+    @Test
+    void testGetAllFruitsWithPooledTransport() throws IOException {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        FruitService pooledService = new FruitService(new PooledHttpClient(),
+                "http://" + HOST + ":" + PORT + FRUITS_ENDPOINT);
+
+        // Act - repeated calls reuse the pooled connection
+        List<Fruit> first = pooledService.getAllFruits();
+        List<Fruit> second = pooledService.getAllFruits();
+
+        // Assert
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        verify(2, getRequestedFor(urlEqualTo(FRUITS_ENDPOINT))
+                .withHeader("Accept", equalTo("application/json")));
+    }
+
+    @Test
+    void testUnchangedCatalogIsRevalidated() throws IOException {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse()
+                        .withStatus(304)
+                        .withHeader("ETag", "\"v1\"")));
+
+        // Act
+        List<Fruit> first = fruitService.getAllFruits();
+        List<Fruit> second = fruitService.getAllFruits();
+
+        // Assert
+        assertEquals(1, second.size());
+        assertEquals(first, second);
+        verify(1, getRequestedFor(urlEqualTo(FRUITS_ENDPOINT))
+                .withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void testGetAllFruitsCompressed() throws IOException {
+        // Arrange
+        String json = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
+                "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .withHeader("Accept-Encoding", containing("gzip"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Content-Encoding", "gzip")
+                        .withBody(compressed.toByteArray())));
+        FruitService pooledService = new FruitService(new PooledHttpClient(),
+                "http://" + HOST + ":" + PORT + FRUITS_ENDPOINT);
+
+        // Act
+        List<Fruit> fruits = fruitService.getAllFruits();
+        List<Fruit> pooledFruits = pooledService.getAllFruits();
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana"), fruits.stream().map(Fruit::getName).toList());
+        assertEquals(fruits, pooledFruits);
+    }
+
+    @Test
+    void testGetAllFruitsAsyncManyInFlight() {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        FruitService pooledService = new FruitService(new PooledHttpClient(),
+                "http://" + HOST + ":" + PORT + FRUITS_ENDPOINT);
+
+        // Act - all requests are started before any of them completes
+        List<CompletableFuture<List<Fruit>>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            futures.add(pooledService.getAllFruitsAsync());
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        // Assert
+        for (CompletableFuture<List<Fruit>> future : futures) {
+            assertEquals("Apple", future.join().get(0).getName());
+        }
+        verify(50, getRequestedFor(urlEqualTo(FRUITS_ENDPOINT)));
+    }
+
+    @Test
+    void testSyncAndAsyncFollowPagination() throws IOException {
+        // Arrange
+        String serviceUrl = "http://" + HOST + ":" + PORT + FRUITS_ENDPOINT;
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + serviceUrl + "?page=2>; rel=\"next\"")
+                        .withBody("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT + "?page=2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]")));
+        FruitService pooledService = new FruitService(new PooledHttpClient(), serviceUrl);
+
+        // Act
+        List<Fruit> sync = fruitService.getAllFruits();
+        List<Fruit> async = fruitService.getAllFruitsAsync().join();
+        List<Fruit> pooledAsync = pooledService.getAllFruitsAsync().join();
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana"), sync.stream().map(Fruit::getName).toList());
+        assertEquals(sync, async);
+        assertEquals(sync, pooledAsync);
+    }
+
     @Test
     void testGetAllFruitsEmptyResponse() throws IOException {
         // Arrange
@@ -0,0 +1,118 @@
+package info.jab.demo.integration;
+
+import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.ResilientHttpClient;
+import info.jab.demo.model.Fruit;
+import info.jab.demo.service.FruitService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+@Tag("integration")
+class ResilientHttpClientIT {
+
+    private static final int PORT = 8091;
+    private static final String HOST = "localhost";
+    private static final String FRUITS_ENDPOINT = "/api/fruits";
+    private static final String FRUITS_JSON = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]";
+    private WireMockServer wireMockServer;
+
+    private String serviceUrl;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(wireMockConfig().port(PORT));
+        wireMockServer.start();
+        WireMock.configureFor(HOST, PORT);
+        serviceUrl = "http://" + HOST + ":" + PORT + FRUITS_ENDPOINT;
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testRetriesUnavailableService() throws IOException {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT)).inScenario("flaky")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT)).inScenario("flaky")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(FRUITS_JSON)));
+        ResilientHttpClient client = ResilientHttpClient.builder(new HttpClient())
+                .backoff(Duration.ofMillis(10), Duration.ofMillis(50))
+                .build();
+
+        // Act
+        List<Fruit> fruits = new FruitService(client, serviceUrl).getAllFruits();
+
+        // Assert
+        assertEquals("Apple", fruits.get(0).getName());
+        assertEquals(1, client.getRetryCount());
+        verify(2, getRequestedFor(urlEqualTo(FRUITS_ENDPOINT)));
+    }
+
+    @Test
+    void testHedgingCutsSlowResponse() throws IOException {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT)).inScenario("slow")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withFixedDelay(3000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(FRUITS_JSON))
+                .willSetStateTo("fast"));
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT)).inScenario("slow")
+                .whenScenarioStateIs("fast")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(FRUITS_JSON)));
+        ResilientHttpClient client = ResilientHttpClient.builder(new HttpClient())
+                .hedgeAfter(Duration.ofMillis(100))
+                .build();
+        long start = System.nanoTime();
+
+        // Act
+        String body = client.get(serviceUrl);
+
+        // Assert
+        assertEquals(FRUITS_JSON, body);
+        assertEquals(1, client.getHedgeCount());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    }
+
+    @Test
+    void testNotFoundIsNotRetried() {
+        // Arrange
+        stubFor(get(urlEqualTo(FRUITS_ENDPOINT)).willReturn(aResponse().withStatus(404)));
+        ResilientHttpClient client = ResilientHttpClient.builder(new HttpClient()).build();
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> client.get(serviceUrl));
+
+        // Assert
+        assertEquals("HTTP GET request failed with error code: 404", exception.getMessage());
+        verify(1, getRequestedFor(urlEqualTo(FRUITS_ENDPOINT)));
+    }
+}
@@ -0,0 +1,98 @@
+package info.jab.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitCatalogTest {
+
+    private static final List<Fruit> FRUITS = List.of(
+            new Fruit("Apple", "Red", 150.5),
+            new Fruit("Banana", "Yellow", 120.0),
+            new Fruit("Cherry", "Red", 5.0),
+            new Fruit("Apple", "Green", 140.0));
+
+    @Test
+    void testRoundTrip() {
+        // Act
+        FruitCatalog catalog = FruitCatalog.of(FRUITS);
+
+        // Assert
+        assertEquals(4, catalog.size());
+        assertEquals(FRUITS, catalog.asList());
+        List<Fruit> iterated = new ArrayList<>();
+        catalog.forEach(iterated::add);
+        assertEquals(FRUITS, iterated);
+    }
+
+    @Test
+    void testNamesAndColorsAreDictionaryEncoded() {
+        // Act
+        FruitCatalog catalog = FruitCatalog.of(FRUITS);
+
+        // Assert
+        assertEquals(3, catalog.getNameCount());
+        assertEquals(3, catalog.getColorCount());
+        assertSame(catalog.getName(0), catalog.getName(3));
+        assertEquals(catalog.getColorId(0), catalog.getColorId(2));
+        assertEquals("Red", catalog.colorOf(catalog.colorIdOf("Red")));
+        assertEquals(-1, catalog.colorIdOf("Blue"));
+    }
+
+    @Test
+    void testFilters() {
+        // Arrange
+        FruitCatalog catalog = FruitCatalog.of(FRUITS);
+
+        // Act & Assert
+        assertArrayEquals(new int[] {0, 2}, catalog.filterByColor("Red"));
+        assertArrayEquals(new int[0], catalog.filterByColor("Blue"));
+        assertArrayEquals(new int[] {1, 3}, catalog.filterByWeight(100.0, 140.0));
+        assertArrayEquals(new int[] {2}, catalog.filter(row -> catalog.getWeight(row) < 10.0));
+        assertEquals(List.of(FRUITS.get(0), FRUITS.get(2)), catalog.select(catalog.filterByColor("Red")));
+        assertEquals(415.5, catalog.weights().sum());
+    }
+
+    @Test
+    void testIndexOfNameIgnoresCase() {
+        // Arrange
+        FruitCatalog catalog = FruitCatalog.of(FRUITS);
+
+        // Act & Assert
+        assertEquals(0, catalog.indexOfName("apple"));
+        assertEquals(2, catalog.indexOfName("CHERRY"));
+        assertEquals(-1, catalog.indexOfName("Kiwi"));
+        assertEquals(-1, FruitCatalog.builder().build().indexOfName("apple"));
+    }
+
+    @Test
+    void testBuilderGrowsColumns() {
+        // Arrange
+        FruitCatalog.Builder builder = FruitCatalog.builder();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            builder.add("Fruit " + (i % 10), i % 2 == 0 ? "Red" : "Green", i);
+        }
+        FruitCatalog catalog = builder.build();
+
+        // Assert
+        assertEquals(1000, catalog.size());
+        assertEquals(10, catalog.getNameCount());
+        assertEquals(new Fruit("Fruit 9", "Green", 999.0), catalog.get(999));
+        assertEquals(500, catalog.filterByColor("Red").length);
+    }
+
+    @Test
+    void testRowOutOfBounds() {
+        // Arrange
+        FruitCatalog catalog = FruitCatalog.of(FRUITS);
+
+        // Act & Assert
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.getWeight(-1));
+    }
+}
@@ -0,0 +1,167 @@
+package info.jab.demo.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        // Arrange
+        List<Fruit> fruits = List.of(
+                new Fruit("Apple", "Red", 150.5),
+                new Fruit("Banana", "Yellow", 120.0),
+                new Fruit("Cherry", "Red", 5.0),
+                new Fruit("Pitahaya", "Rosa éclatant", 350.25));
+        Path file = tempDir.resolve("fruits.snapshot");
+        long before = System.currentTimeMillis();
+
+        // Act
+        FruitSnapshot.write(FruitCatalog.of(fruits), file);
+        FruitSnapshot snapshot = FruitSnapshot.read(file);
+
+        // Assert
+        assertEquals(fruits, snapshot.getCatalog().asList());
+        assertEquals(3, snapshot.getCatalog().getColorCount());
+        assertTrue(snapshot.getCreatedAtMillis() >= before);
+    }
+
+    @Test
+    void testEmptyCatalog() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("empty.snapshot");
+
+        // Act
+        FruitSnapshot.write(FruitCatalog.builder().build(), file);
+
+        // Assert
+        assertTrue(FruitSnapshot.read(file).getCatalog().isEmpty());
+    }
+
+    @Test
+    void testLargeCatalog() throws IOException {
+        // Arrange
+        FruitCatalog.Builder builder = FruitCatalog.builder();
+        for (int i = 0; i < 100_000; i++) {
+            builder.add("Fruit " + (i % 1000), "Color " + (i % 7), i / 4.0);
+        }
+        FruitCatalog catalog = builder.build();
+        Path file = tempDir.resolve("large.snapshot");
+
+        // Act
+        FruitSnapshot.write(catalog, file);
+        FruitCatalog loaded = FruitSnapshot.read(file).getCatalog();
+
+        // Assert
+        assertEquals(catalog.size(), loaded.size());
+        assertEquals(catalog.get(99_999), loaded.get(99_999));
+        assertEquals(catalog.weights().sum(), loaded.weights().sum());
+    }
+
+    @Test
+    void testColumnsAreServedFromTheMapping() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), file);
+
+        // Act
+        FruitCatalog catalog = FruitSnapshot.read(file).getCatalog();
+
+        // Assert - the columns are views of the mapped file, not heap copies
+        assertTrue(catalog.nameColumn().isDirect());
+        assertTrue(catalog.colorColumn().isDirect());
+        assertTrue(catalog.weightColumn().isDirect());
+        assertEquals(new Fruit("Apple", "Red", 150.5), catalog.get(0));
+    }
+
+    @Test
+    void testUnverifiedReadSkipsTheChecksum() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 8] ^= 0x01;
+        Files.write(file, bytes);
+
+        // Act
+        FruitCatalog catalog = FruitSnapshot.read(file, false).getCatalog();
+
+        // Assert
+        assertEquals("Apple", catalog.getName(0));
+        assertNotEquals(150.5, catalog.getWeight(0));
+        assertThrows(IOException.class, () -> FruitSnapshot.read(file, true));
+    }
+
+    @Test
+    void testRewriteReplacesSnapshot() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), file);
+
+        // Act
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Banana", "Yellow", 120.0))), file);
+
+        // Assert
+        assertEquals("Banana", FruitSnapshot.read(file).getCatalog().getName(0));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testRejectsForeignFile() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.json");
+        Files.writeString(file, "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]");
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> FruitSnapshot.read(file));
+
+        // Assert
+        assertTrue(exception.getMessage().endsWith("not a fruit snapshot"));
+    }
+
+    @Test
+    void testRejectsUnsupportedVersion() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putShort(4, (short) 99);
+        Files.write(file, bytes);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> FruitSnapshot.read(file));
+
+        // Assert
+        assertTrue(exception.getMessage().endsWith("unsupported version 99"));
+    }
+
+    @Test
+    void testRejectsCorruptData() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("fruits.snapshot");
+        FruitSnapshot.write(FruitCatalog.of(List.of(new Fruit("Apple", "Red", 150.5))), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 8] ^= 0x01;
+        Files.write(file, bytes);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> FruitSnapshot.read(file));
+
+        // Assert
+        assertTrue(exception.getMessage().endsWith("checksum mismatch"));
+    }
+}
@@ -1,6 +1,9 @@
 package info.jab.demo.model;
 
 import org.junit.jupiter.api.Test;
+
+import java.util.Objects;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class FruitTest {
@@ -34,6 +37,25 @@ class FruitTest {
         assertEquals(fruit1.hashCode(), fruit2.hashCode());
     }
     
+    @Test
+    void testHashCodeMatchesObjectsHash() {
+        Fruit fruit = new Fruit("Strawberry", "Red", 20.5);
+        
+        assertEquals(Objects.hash("Strawberry", "Red", 20.5), fruit.hashCode());
+        assertEquals(fruit.hashCode(), fruit.hashCode());
+    }
+    
+    @Test
+    void testEqualityAfterHashing() {
+        Fruit fruit1 = new Fruit("Banana", "Yellow", 120.0);
+        Fruit fruit2 = new Fruit("Banana", "Yellow", 121.0);
+        fruit1.hashCode();
+        fruit2.hashCode();
+        
+        assertNotEquals(fruit1, fruit2);
+        assertEquals(fruit1, new Fruit("Banana", "Yellow", 120.0));
+    }
+    
     @Test
     void testToString() {
         Fruit fruit = new Fruit("Grape", "Purple", 5.0);
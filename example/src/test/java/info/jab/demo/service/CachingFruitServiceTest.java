@@ -0,0 +1,117 @@
+package info.jab.demo.service;
+
+import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.StreamedResponse;
+import info.jab.demo.model.Fruit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingFruitServiceTest {
+
+    @Mock
+    private HttpClient mockHttpClient;
+
+    private CachingFruitService fruitService;
+    private static final String TEST_URL = "http://test.com/api/fruits";
+
+    @BeforeEach
+    void setUp() {
+        fruitService = new CachingFruitService(mockHttpClient, TEST_URL, Duration.ofMinutes(5), 16);
+    }
+
+    @Test
+    void testRepeatedGetAllFruitsFetchesOnce() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenAnswer(invocation ->
+                streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"));
+
+        // Act
+        List<Fruit> first = fruitService.getAllFruits();
+        List<Fruit> second = fruitService.getAllFruits();
+        Fruit apple = fruitService.findByName("apple");
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals("Apple", apple.getName());
+        assertThrows(UnsupportedOperationException.class, () -> first.add(apple));
+        verify(mockHttpClient, times(1)).open(TEST_URL);
+        assertEquals(2, fruitService.getCache().getHitCount());
+        assertEquals(1, fruitService.getCache().getMissCount());
+    }
+
+    @Test
+    void testSeveralUrlsAreCachedSeparately() throws IOException {
+        // Arrange
+        when(mockHttpClient.open("http://a.com/fruits")).thenAnswer(invocation ->
+                streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"));
+        when(mockHttpClient.open("http://b.com/fruits")).thenAnswer(invocation ->
+                streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]"));
+        List<String> urls = List.of("http://a.com/fruits", "http://b.com/fruits");
+
+        // Act
+        fruitService.getAllFruits(urls);
+        List<Fruit> result = fruitService.getAllFruits(urls);
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana"), result.stream().map(Fruit::getName).toList());
+        verify(mockHttpClient, times(1)).open("http://a.com/fruits");
+        verify(mockHttpClient, times(1)).open("http://b.com/fruits");
+    }
+
+    @Test
+    void testRefreshBypassesTheCache() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL))
+                .thenReturn(streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"))
+                .thenReturn(streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]"));
+        fruitService.getAllFruits();
+
+        // Act
+        FruitIndex index = fruitService.refresh();
+
+        // Assert
+        assertNotNull(index.findByName("Banana"));
+        verify(mockHttpClient, times(2)).open(TEST_URL);
+    }
+
+    @Test
+    void testLookupsSeeDataReloadedAfterTheTtl() throws IOException {
+        // Arrange
+        AtomicLong now = new AtomicLong();
+        CachingFruitService service = new CachingFruitService(mockHttpClient, TEST_URL, Duration.ofSeconds(10), 16,
+                Runnable::run, now::get);
+        when(mockHttpClient.open(TEST_URL))
+                .thenReturn(streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"))
+                .thenReturn(streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]"));
+        assertNotNull(service.findByName("Apple"));
+
+        // Act
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        Fruit banana = service.findByName("Banana");
+
+        // Assert
+        assertNotNull(banana);
+        assertNull(service.findByName("Apple"));
+        verify(mockHttpClient, times(2)).open(TEST_URL);
+    }
+
+    private static StreamedResponse streamed(String json) {
+        return new StreamedResponse(200, Map.of("Content-Type", List.of("application/json")),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
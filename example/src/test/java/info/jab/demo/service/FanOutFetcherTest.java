@@ -0,0 +1,111 @@
+package info.jab.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutFetcherTest {
+
+    @Test
+    void testResultsFollowUrlOrder() throws IOException {
+        // Arrange
+        FanOutFetcher fetcher = new FanOutFetcher(4, Duration.ofSeconds(5));
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            urls.add("http://test.com/" + i);
+        }
+
+        // Act - later URLs finish first
+        List<String> results = fetcher.fetchAll(urls, url -> {
+            sleep(20 - Integer.parseInt(url.substring(url.lastIndexOf('/') + 1)));
+            return url.toUpperCase();
+        });
+
+        // Assert
+        assertEquals(20, results.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("HTTP://TEST.COM/" + i, results.get(i));
+        }
+    }
+
+    @Test
+    void testConcurrencyIsCapped() throws IOException {
+        // Arrange
+        FanOutFetcher fetcher = new FanOutFetcher(3, Duration.ofSeconds(5));
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            urls.add("http://test.com/" + i);
+        }
+
+        // Act
+        fetcher.fetchAll(urls, url -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(20);
+            running.decrementAndGet();
+            return url;
+        });
+
+        // Assert
+        assertTrue(maxRunning.get() <= 3, "max running: " + maxRunning.get());
+    }
+
+    @Test
+    void testSlowRequestExceedsDeadline() {
+        // Arrange
+        FanOutFetcher fetcher = new FanOutFetcher(2, Duration.ofMillis(100));
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () ->
+            fetcher.fetchAll(List.of("http://fast", "http://slow"), url -> {
+                sleep(url.endsWith("slow") ? 5000 : 0);
+                return url;
+            }));
+
+        // Assert
+        assertEquals("Request to http://slow exceeded the deadline of 100 ms", exception.getMessage());
+    }
+
+    @Test
+    void testFailureIsPropagated() {
+        // Arrange
+        FanOutFetcher fetcher = new FanOutFetcher(2, Duration.ofSeconds(5));
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, () ->
+            fetcher.fetchAll(List.of("http://ok", "http://broken"), url -> {
+                if (url.endsWith("broken")) {
+                    throw new IOException("Network error");
+                }
+                return url;
+            }));
+        assertEquals("Network error", exception.getMessage());
+    }
+
+    @Test
+    void testPlatformThreadsCanBeForced() {
+        assertFalse(new FanOutFetcher(1, Duration.ofSeconds(1), false).usesVirtualThreads());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new FanOutFetcher(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new FanOutFetcher(1, Duration.ZERO));
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitAnalyticsTest {
+
+    private static final List<Fruit> FRUITS = List.of(
+            new Fruit("Apple", "Red", 150.0),
+            new Fruit("Banana", "Yellow", 120.0),
+            new Fruit("Cherry", "Red", 5.0),
+            new Fruit("Strawberry", "Red", 20.0),
+            new Fruit("Lemon", "Yellow", 80.0),
+            new Fruit("Lime", "Green", 60.0));
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testWeightStatistics() {
+        // Arrange
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(FRUITS), pool, 2);
+
+        // Act
+        WeightStatistics statistics = analytics.weightStatistics();
+
+        // Assert
+        assertEquals(6, statistics.getCount());
+        assertEquals(435.0, statistics.getSum());
+        assertEquals(5.0, statistics.getMin());
+        assertEquals(150.0, statistics.getMax());
+        assertEquals(72.5, statistics.getMean());
+    }
+
+    @Test
+    void testStatisticsByColor() {
+        // Arrange
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(FRUITS), pool, 2);
+
+        // Act
+        Map<String, WeightStatistics> byColor = analytics.statisticsByColor();
+
+        // Assert
+        assertEquals(List.of("Red", "Yellow", "Green"), new ArrayList<>(byColor.keySet()));
+        WeightStatistics red = byColor.get("Red");
+        assertEquals(3, red.getCount());
+        assertEquals(175.0, red.getSum());
+        assertEquals(5.0, red.getMin());
+        assertEquals(150.0, red.getMax());
+        assertEquals(175.0 / 3, red.getMean(), 1e-9);
+        assertEquals(Map.of("Red", 3L, "Yellow", 2L, "Green", 1L), analytics.countByColor());
+    }
+
+    @Test
+    void testPercentiles() {
+        // Arrange
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(FRUITS), pool, 2);
+
+        // Act
+        double[] percentiles = analytics.percentiles(0.0, 0.5, 1.0);
+        Map<String, double[]> byColor = analytics.percentilesByColor(0.5, 1.0);
+
+        // Assert
+        assertArrayEquals(new double[] {5.0, 60.0, 150.0}, percentiles);
+        assertArrayEquals(new double[] {20.0, 150.0}, byColor.get("Red"));
+        assertArrayEquals(new double[] {80.0, 120.0}, byColor.get("Yellow"));
+        assertArrayEquals(new double[] {60.0, 60.0}, byColor.get("Green"));
+    }
+
+    @Test
+    void testTopHeaviestByColor() {
+        // Arrange
+        List<Fruit> fruits = new ArrayList<>(FRUITS);
+        fruits.add(new Fruit("Raspberry", "Red", 20.0));
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(fruits), pool, 2);
+
+        // Act
+        Map<String, List<Fruit>> top = analytics.topHeaviestByColor(2);
+
+        // Assert
+        assertEquals(List.of(FRUITS.get(0), FRUITS.get(3)), top.get("Red"));
+        assertEquals(List.of(FRUITS.get(1), FRUITS.get(4)), top.get("Yellow"));
+        assertEquals(List.of(FRUITS.get(5)), top.get("Green"));
+    }
+
+    @Test
+    void testEmptyCatalog() {
+        // Arrange
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.builder().build(), pool, 2);
+
+        // Act
+        WeightStatistics statistics = analytics.weightStatistics();
+
+        // Assert
+        assertEquals(0, statistics.getCount());
+        assertTrue(Double.isNaN(statistics.getMean()));
+        assertTrue(Double.isNaN(analytics.percentiles(0.5)[0]));
+        assertTrue(analytics.statisticsByColor().isEmpty());
+        assertTrue(analytics.percentilesByColor(0.5).isEmpty());
+        assertTrue(analytics.topHeaviestByColor(3).isEmpty());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        // Arrange
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(FRUITS), pool, 2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> analytics.topHeaviestByColor(0));
+        assertThrows(IllegalArgumentException.class, () -> analytics.percentiles(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new FruitAnalytics(FruitCatalog.of(FRUITS), pool, 0));
+    }
+
+    @Test
+    void testParallelReductionMatchesSequentialComputation() {
+        // Arrange
+        String[] colors = {"Red", "Yellow", "Green", "Orange", "Purple"};
+        Random random = new Random(42);
+        List<Fruit> fruits = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            fruits.add(new Fruit("Fruit" + i, colors[random.nextInt(colors.length)],
+                Math.round(random.nextDouble() * 5_000) / 10.0));
+        }
+        FruitAnalytics analytics = new FruitAnalytics(FruitCatalog.of(fruits), pool, 256);
+
+        Map<String, List<Fruit>> expectedGroups = new LinkedHashMap<>();
+        for (Fruit fruit : fruits) {
+            expectedGroups.computeIfAbsent(fruit.getColor(), color -> new ArrayList<>()).add(fruit);
+        }
+
+        // Act
+        Map<String, WeightStatistics> statistics = analytics.statisticsByColor();
+        Map<String, double[]> percentiles = analytics.percentilesByColor(0.5, 0.95);
+        Map<String, List<Fruit>> top = analytics.topHeaviestByColor(5);
+
+        // Assert
+        assertEquals(new ArrayList<>(expectedGroups.keySet()), new ArrayList<>(statistics.keySet()));
+        for (Map.Entry<String, List<Fruit>> group : expectedGroups.entrySet()) {
+            List<Fruit> expected = group.getValue();
+            double[] weights = expected.stream().mapToDouble(Fruit::getWeight).sorted().toArray();
+            WeightStatistics actual = statistics.get(group.getKey());
+            assertEquals(expected.size(), actual.getCount());
+            assertEquals(Arrays.stream(weights).sum(), actual.getSum(), 1e-6);
+            assertEquals(weights[0], actual.getMin());
+            assertEquals(weights[weights.length - 1], actual.getMax());
+            assertArrayEquals(new double[] {
+                weights[(int) Math.ceil(0.5 * weights.length) - 1],
+                weights[(int) Math.ceil(0.95 * weights.length) - 1]}, percentiles.get(group.getKey()));
+            List<Fruit> heaviest = expected.stream()
+                .sorted(Comparator.comparingDouble(Fruit::getWeight).reversed())
+                .limit(5)
+                .toList();
+            assertEquals(heaviest, top.get(group.getKey()));
+        }
+    }
+}
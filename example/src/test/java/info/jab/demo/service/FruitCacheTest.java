@@ -0,0 +1,182 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitCacheTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    @Test
+    void testSecondRequestIsAHit() throws IOException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        FruitCache cache = cache(url -> List.of(new Fruit("Apple", "Red", 150.5 + loads.getAndIncrement())), 10);
+
+        // Act
+        List<Fruit> first = cache.get("http://a.com/fruits");
+        List<Fruit> second = cache.get("http://a.com/fruits");
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testStaleEntryIsServedWhileRefreshing() throws IOException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        FruitCache cache = cache(url -> List.of(new Fruit("Apple", "Red", loads.incrementAndGet())), 10);
+        cache.get("http://a.com/fruits");
+        now.addAndGet(TTL.toNanos());
+
+        // Act - the stale list is returned and only one refresh is scheduled
+        double staleWeight = cache.get("http://a.com/fruits").get(0).getWeight();
+        cache.get("http://a.com/fruits");
+        refreshes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals(1.0, staleWeight);
+        assertEquals(1, refreshes.size());
+        assertEquals(2.0, cache.get("http://a.com/fruits").get(0).getWeight());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testFailedRefreshKeepsStaleEntry() throws IOException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        FruitCache cache = cache(url -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IOException("Rate limited");
+            }
+            return List.of(new Fruit("Apple", "Red", 150.5));
+        }, 10);
+        cache.get("http://a.com/fruits");
+        now.addAndGet(TTL.toNanos());
+
+        // Act
+        cache.get("http://a.com/fruits");
+        refreshes.forEach(Runnable::run);
+
+        // Assert
+        assertEquals("Apple", cache.get("http://a.com/fruits").get(0).getName());
+        assertEquals(2, refreshes.size());
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() throws IOException {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        FruitCache cache = cache(url -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IOException("Network error");
+            }
+            return List.of(new Fruit("Apple", "Red", 150.5));
+        }, 10);
+
+        // Act & Assert
+        IOException exception = assertThrows(IOException.class, () -> cache.get("http://a.com/fruits"));
+        assertEquals("Network error", exception.getMessage());
+        assertEquals(1, cache.get("http://a.com/fruits").size());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        // Arrange
+        List<String> loaded = new ArrayList<>();
+        FruitCache cache = cache(url -> {
+            loaded.add(url);
+            return List.of();
+        }, 2);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+
+        // Act
+        cache.get("c");
+        cache.get("a");
+        cache.get("b");
+
+        // Assert
+        assertEquals(List.of("a", "b", "c", "b"), loaded);
+        assertEquals(2, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        FruitCache cache = cache(url -> {
+            loads.incrementAndGet();
+            release.await();
+            return List.of(new Fruit("Apple", "Red", 150.5));
+        }, 10);
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<Fruit>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get("http://a.com/fruits")));
+            }
+
+            // Act
+            while (cache.getMissCount() < callers) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<List<Fruit>> result : results) {
+                assertEquals("Apple", result.get(5, TimeUnit.SECONDS).get(0).getName());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new FruitCache(url -> List.of(), Duration.ZERO, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FruitCache(url -> List.of(), TTL, 0));
+    }
+
+    private FruitCache cache(ThrowingLoader loader, int maxEntries) {
+        return new FruitCache(url -> {
+            try {
+                return loader.load(url);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+        }, TTL, maxEntries, refreshes::add, now::get);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingLoader {
+        List<Fruit> load(String url) throws IOException, InterruptedException;
+    }
+}
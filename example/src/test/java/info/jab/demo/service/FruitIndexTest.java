@@ -0,0 +1,85 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitIndexTest {
+
+    private static final Fruit APPLE = new Fruit("Apple", "Red", 150.5);
+    private static final Fruit BANANA = new Fruit("Banana", "Yellow", 120.0);
+    private static final Fruit CHERRY = new Fruit("Cherry", "red", 5.0);
+    private static final Fruit LEMON = new Fruit("Lemon", "Yellow", 120.0);
+
+    private final FruitIndex index = new FruitIndex(List.of(APPLE, BANANA, CHERRY, LEMON));
+
+    @Test
+    void testFindByNameIgnoresCase() {
+        // Act & Assert
+        assertEquals(BANANA, index.findByName("bAnAnA"));
+        assertNull(index.findByName("Orange"));
+        assertNull(index.findByName(null));
+    }
+
+    @Test
+    void testFindByNameReturnsFirstDuplicate() {
+        // Arrange
+        Fruit otherApple = new Fruit("APPLE", "Green", 90.0);
+        FruitIndex duplicates = new FruitIndex(List.of(APPLE, otherApple));
+
+        // Act & Assert
+        assertEquals(APPLE, duplicates.findByName("apple"));
+    }
+
+    @Test
+    void testFindByNamesJoinsIgnoringCase() {
+        // Act
+        FruitLookupResult result = index.findByNames(List.of("apple", "ORANGE", "Lemon", "APPLE", "orange"));
+
+        // Assert
+        assertEquals(2, result.getFound().size());
+        assertEquals(APPLE, result.getFound().get("Apple"));
+        assertEquals(LEMON, result.getFound().get("lemon"));
+        assertEquals(List.of("ORANGE"), result.getMissing());
+        assertFalse(result.isComplete());
+        assertThrows(UnsupportedOperationException.class, () -> result.getFound().clear());
+    }
+
+    @Test
+    void testFindByNamesRejectsNull() {
+        // Act & Assert
+        assertThrows(NullPointerException.class, () -> index.findByNames(Arrays.asList("Apple", null)));
+    }
+
+    @Test
+    void testFindByColorKeepsListOrder() {
+        // Act & Assert
+        assertEquals(List.of(APPLE, CHERRY), index.findByColor("RED"));
+        assertEquals(List.of(BANANA, LEMON), index.findByColor("yellow"));
+        assertTrue(index.findByColor("Blue").isEmpty());
+    }
+
+    @Test
+    void testFindByWeightRangeIsInclusive() {
+        // Act & Assert
+        assertEquals(List.of(BANANA, LEMON, APPLE), index.findByWeightRange(120.0, 150.5));
+        assertEquals(List.of(CHERRY), index.findByWeightRange(0.0, 119.9));
+        assertTrue(index.findByWeightRange(151.0, 500.0).isEmpty());
+        assertTrue(index.findByWeightRange(130.0, 100.0).isEmpty());
+    }
+
+    @Test
+    void testEmptyIndex() {
+        // Arrange
+        FruitIndex empty = new FruitIndex(List.of());
+
+        // Act & Assert
+        assertEquals(0, empty.size());
+        assertNull(empty.findByName("Apple"));
+        assertTrue(empty.findByWeightRange(0.0, Double.MAX_VALUE).isEmpty());
+    }
+}
@@ -0,0 +1,182 @@
+package info.jab.demo.service;
+
+import info.jab.demo.model.Fruit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitJsonParserTest {
+
+    @Test
+    void testAcceptsAnyFieldOrderAndWhitespace() throws IOException {
+        // Arrange
+        String json = "[\n  {\n    \"weight\" : 150.5,\n    \"color\":\"Red\",\n    \"name\" :\"Apple\"\n  },"
+                + "\t{\"color\":\"Yellow\",\"name\":\"Banana\",\"weight\":1.2e2}\n]\n";
+
+        // Act
+        List<Fruit> fruits = new FruitJsonParser(new StringReader(json)).readAll();
+
+        // Assert
+        assertEquals(List.of(new Fruit("Apple", "Red", 150.5), new Fruit("Banana", "Yellow", 120.0)), fruits);
+    }
+
+    @Test
+    void testRepeatedValuesShareOneString() throws IOException {
+        // Arrange
+        String json = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5},"
+                + "{\"name\":\"Cherry\",\"color\":\"Red\",\"weight\":5.0}]";
+        StringInterner interner = new StringInterner(64);
+
+        // Act
+        List<Fruit> first = new FruitJsonParser(new StringReader(json), interner).readAll();
+        List<Fruit> second = new FruitJsonParser(new StringReader(json), interner).readAll();
+
+        // Assert
+        assertSame(first.get(0).getColor(), first.get(1).getColor());
+        assertSame(first.get(0).getName(), second.get(0).getName());
+    }
+
+    @Test
+    void testSkipsUnknownFields() throws IOException {
+        // Arrange
+        String json = "[{\"id\":7,\"name\":\"Apple\",\"tags\":[\"a\",{\"b\":\"]}\"}],\"organic\":true,"
+                + "\"origin\":null,\"color\":\"Red\",\"weight\":150}]";
+
+        // Act
+        List<Fruit> fruits = new FruitJsonParser(new StringReader(json)).readAll();
+
+        // Assert
+        assertEquals(List.of(new Fruit("Apple", "Red", 150)), fruits);
+    }
+
+    @Test
+    void testDecodesEscapes() throws IOException {
+        // Arrange
+        String json = "[{\"name\":\"Pi\\u00f1a \\\"Gold\\\"\",\"color\":\"Yellow\\/Green\",\"weight\":900}]";
+
+        // Act
+        Fruit fruit = new FruitJsonParser(new StringReader(json)).next();
+
+        // Assert
+        assertEquals("Piña \"Gold\"", fruit.getName());
+        assertEquals("Yellow/Green", fruit.getColor());
+    }
+
+    @Test
+    void testEmitsFruitsBeforeTheArrayEnds() throws IOException {
+        // Arrange - a source that fails once the first object has been consumed
+        String head = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}";
+        Reader source = new Reader() {
+            private int position;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (position == head.length()) {
+                    throw new IOException("Rest of the response not received yet");
+                }
+                int count = Math.min(Math.min(length, 5), head.length() - position);
+                head.getChars(position, position + count, buffer, offset);
+                position += count;
+                return count;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        FruitJsonParser parser = new FruitJsonParser(source);
+
+        // Act
+        Fruit first = parser.next();
+
+        // Assert
+        assertEquals(new Fruit("Apple", "Red", 150.5), first);
+        assertThrows(IOException.class, parser::next);
+    }
+
+    @Test
+    void testParsesLongStringsAcrossBufferBoundaries() throws IOException {
+        // Arrange
+        String name = "x".repeat(20_000);
+        String json = "[{\"name\":\"" + name + "\",\"color\":\"Red\",\"weight\":1}]";
+
+        // Act
+        Fruit fruit = new FruitJsonParser(new StringReader(json)).next();
+
+        // Assert
+        assertEquals(name, fruit.getName());
+    }
+
+    @Test
+    void testReadsPaginationEnvelope() throws IOException {
+        // Arrange
+        String json = "{\"page\":1,\"fruits\":[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}],"
+                + "\"next\":\"/api/fruits?page=2\",\"meta\":{\"total\":2}}";
+        FruitJsonParser parser = new FruitJsonParser(new StringReader(json));
+
+        // Act
+        List<Fruit> fruits = parser.readAll();
+
+        // Assert
+        assertEquals(List.of(new Fruit("Apple", "Red", 150.5)), fruits);
+        assertEquals("/api/fruits?page=2", parser.getNextPage());
+        assertNull(parser.getNextCursor());
+    }
+
+    @Test
+    void testReadsCursorBeforeTheArray() throws IOException {
+        // Arrange
+        String json = "{ \"nextCursor\" : \"abc\", \"next\": null, \"fruits\" : [ ] }";
+        FruitJsonParser parser = new FruitJsonParser(new StringReader(json));
+
+        // Act
+        List<Fruit> fruits = parser.readAll();
+
+        // Assert
+        assertTrue(fruits.isEmpty());
+        assertEquals("abc", parser.getNextCursor());
+        assertNull(parser.getNextPage());
+    }
+
+    @Test
+    void testRejectsObjectWithoutFruits() {
+        // Arrange
+        String json = "{\"error\":\"Service unavailable\",\"next\":null}";
+
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new FruitJsonParser(new StringReader(json)).readAll());
+
+        // Assert
+        assertTrue(exception.getMessage().contains("object has no 'fruits' array"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "This is not JSON",
+        "{}",
+        "{\"total\":0}",
+        "{\"fruits\":{}}",
+        "{\"fruits\":[]",
+        "[{\"name\":\"Apple\",\"color\":\"Red\"}]",
+        "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":\"heavy\"}]",
+        "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":1}",
+        "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":1}] trailing",
+        "[{\"name\":\"Apple"
+    })
+    void testRejectsInvalidInput(String json) {
+        // Act
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new FruitJsonParser(new StringReader(json)).readAll());
+
+        // Assert
+        assertTrue(exception.getMessage().startsWith("Failed to parse fruit data from response: "));
+    }
+}
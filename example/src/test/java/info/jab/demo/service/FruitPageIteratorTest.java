@@ -0,0 +1,22 @@
+package info.jab.demo.service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FruitPageIteratorTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', nullValues = "NONE", value = {
+        "<https://api.test/fruits?page=2>; rel=\"next\"|https://api.test/fruits?page=2",
+        "<https://api.test/fruits?page=1>; rel=\"prev\", <https://api.test/fruits?page=3>; rel=\"next\"|https://api.test/fruits?page=3",
+        "</fruits?page=2&sort=a,b>; rel=\"next last\"|/fruits?page=2&sort=a,b",
+        "<https://api.test/fruits?page=9>; REL=next|https://api.test/fruits?page=9",
+        "<https://api.test/fruits?page=1>; rel=\"prev\"|NONE",
+        "NONE|NONE"
+    })
+    void testNextLink(String header, String expected) {
+        assertEquals(expected, FruitPageIterator.nextLink(header));
+    }
+}
@@ -1,15 +1,26 @@
 package info.jab.demo.service;
 
 import info.jab.demo.http.HttpClient;
+import info.jab.demo.http.StreamedResponse;
 import info.jab.demo.model.Fruit;
+import info.jab.demo.model.FruitCatalog;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,7 +45,7 @@ class FruitServiceTest {
         String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
                 "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
         
-        when(mockHttpClient.get(TEST_URL)).thenReturn(jsonResponse);
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
 
         // Act
         List<Fruit> result = fruitService.getAllFruits();
@@ -52,7 +63,7 @@ class FruitServiceTest {
         assertEquals("Yellow", banana.getColor());
         assertEquals(120.0, banana.getWeight());
         
-        verify(mockHttpClient, times(1)).get(TEST_URL);
+        verify(mockHttpClient, times(1)).open(TEST_URL);
     }
 
     @Test
@@ -86,7 +97,7 @@ class FruitServiceTest {
         String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
                 "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
         
-        when(mockHttpClient.get(TEST_URL)).thenReturn(jsonResponse);
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
 
         // Act
         Fruit result = fruitService.findByName("Banana");
@@ -97,7 +108,7 @@ class FruitServiceTest {
         assertEquals("Yellow", result.getColor());
         assertEquals(120.0, result.getWeight());
         
-        verify(mockHttpClient, times(1)).get(TEST_URL);
+        verify(mockHttpClient, times(1)).open(TEST_URL);
     }
 
     @Test
@@ -106,20 +117,329 @@ class FruitServiceTest {
         String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
                 "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
         
-        when(mockHttpClient.get(TEST_URL)).thenReturn(jsonResponse);
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
 
         // Act
         Fruit result = fruitService.findByName("Orange");
 
         // Assert
         assertNull(result);
-        verify(mockHttpClient, times(1)).get(TEST_URL);
+        verify(mockHttpClient, times(1)).open(TEST_URL);
     }
     
+    @Test
+    void testLookupsAreServedFromMemory() throws IOException {
+        // Arrange
+        String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
+                "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}," +
+                "{\"name\":\"Cherry\",\"color\":\"Red\",\"weight\":5.0}]";
+        
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
+
+        // Act
+        Fruit apple = fruitService.findByName("apple");
+        List<Fruit> red = fruitService.findByColor("red");
+        List<Fruit> heavy = fruitService.findByWeightRange(100.0, 200.0);
+
+        // Assert
+        assertEquals("Apple", apple.getName());
+        assertEquals(List.of("Apple", "Cherry"), red.stream().map(Fruit::getName).toList());
+        assertEquals(List.of("Banana", "Apple"), heavy.stream().map(Fruit::getName).toList());
+        verify(mockHttpClient, times(1)).open(TEST_URL);
+    }
+
+    @Test
+    void testFindByNamesFetchesOnce() throws IOException {
+        // Arrange
+        String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
+                "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
+        
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
+
+        // Act
+        FruitLookupResult result = fruitService.findByNames(List.of("banana", "apple", "Kiwi"));
+
+        // Assert
+        assertEquals("Banana", result.getFound().get("BANANA").getName());
+        assertEquals("Apple", result.getFound().get("apple").getName());
+        assertEquals(List.of("Kiwi"), result.getMissing());
+        verify(mockHttpClient, times(1)).open(TEST_URL);
+    }
+
+    @Test
+    void testRefreshReloadsTheIndex() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL))
+                .thenReturn(streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"))
+                .thenReturn(streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]"));
+        assertNotNull(fruitService.findByName("Apple"));
+
+        // Act
+        fruitService.refresh();
+
+        // Assert
+        assertNull(fruitService.findByName("Apple"));
+        assertNotNull(fruitService.findByName("Banana"));
+        verify(mockHttpClient, times(2)).open(TEST_URL);
+    }
+
+    @Test
+    void testNotModifiedPageIsReplayedFromMemory() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenReturn(new StreamedResponse(200,
+                Map.of("ETag", List.of("\"v1\"")),
+                body("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        when(mockHttpClient.open(TEST_URL, Map.of("If-None-Match", "\"v1\"")))
+                .thenAnswer(invocation -> new StreamedResponse(304, Map.of(), InputStream.nullInputStream()));
+
+        // Act
+        List<Fruit> first = fruitService.getAllFruits();
+        List<Fruit> second = fruitService.getAllFruits();
+        List<Fruit> third = fruitService.getAllFruits();
+
+        // Assert
+        assertEquals(List.of(new Fruit("Apple", "Red", 150.5)), first);
+        assertEquals(first, second);
+        assertEquals(first, third);
+        verify(mockHttpClient, times(1)).open(TEST_URL);
+        verify(mockHttpClient, times(2)).open(TEST_URL, Map.of("If-None-Match", "\"v1\""));
+    }
+
+    @Test
+    void testPartiallyReadPageIsNotRemembered() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenAnswer(invocation -> new StreamedResponse(200,
+                Map.of("ETag", List.of("\"v1\"")),
+                body("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
+                        "{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]")));
+
+        // Act
+        try (Stream<Fruit> fruits = fruitService.streamFruits()) {
+            fruits.findFirst();
+        }
+        List<Fruit> result = fruitService.getAllFruits();
+
+        // Assert - the second fetch was unconditional because the first page was never completed
+        assertEquals(2, result.size());
+        verify(mockHttpClient, times(2)).open(TEST_URL);
+    }
+
+    @Test
+    void testStreamedPagesAreNotRemembered() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenAnswer(invocation -> new StreamedResponse(200,
+                Map.of("ETag", List.of("\"v1\""),
+                        "Link", List.of("<" + TEST_URL + "?page=2>; rel=\"next\"")),
+                body("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        when(mockHttpClient.open(TEST_URL + "?page=2")).thenAnswer(invocation -> new StreamedResponse(200,
+                Map.of("ETag", List.of("\"v2\"")),
+                body("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]")));
+
+        // Act
+        List<String> first;
+        try (Stream<Fruit> fruits = fruitService.streamFruits()) {
+            first = fruits.map(Fruit::getName).toList();
+        }
+        List<String> second;
+        try (Stream<Fruit> fruits = fruitService.streamFruits()) {
+            second = fruits.map(Fruit::getName).toList();
+        }
+
+        // Assert - fully read pages with validators were still fetched unconditionally
+        assertEquals(List.of("Apple", "Banana"), first);
+        assertEquals(first, second);
+        assertEquals(0, fruitService.pageCache.size());
+        verify(mockHttpClient, times(2)).open(TEST_URL);
+        verify(mockHttpClient, times(2)).open(TEST_URL + "?page=2");
+        verify(mockHttpClient, never()).open(anyString(), anyMap());
+    }
+
+    @Test
+    void testGetCatalog() throws IOException {
+        // Arrange
+        String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}," +
+                "{\"name\":\"Cherry\",\"color\":\"Red\",\"weight\":5.0}]";
+        
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
+
+        // Act
+        FruitCatalog catalog = fruitService.getCatalog();
+
+        // Assert
+        assertEquals(2, catalog.size());
+        assertEquals(1, catalog.getColorCount());
+        assertEquals(new Fruit("Cherry", "Red", 5.0), catalog.get(1));
+    }
+
+    @Test
+    void testGetAnalytics() throws IOException {
+        // Arrange
+        String jsonResponse = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.0}," +
+                "{\"name\":\"Cherry\",\"color\":\"Red\",\"weight\":5.0}]";
+
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(jsonResponse));
+
+        // Act
+        FruitAnalytics analytics = fruitService.getAnalytics();
+
+        // Assert
+        assertEquals(Map.of("Red", 2L), analytics.countByColor());
+        assertEquals(77.5, analytics.weightStatistics().getMean());
+    }
+
+    @Test
+    void testGetAllFruitsFromSeveralUrls() throws IOException {
+        // Arrange
+        when(mockHttpClient.open("http://a.com/fruits"))
+                .thenReturn(streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"));
+        when(mockHttpClient.open("http://b.com/fruits"))
+                .thenReturn(streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}," +
+                        "{\"name\":\"Cherry\",\"color\":\"Red\",\"weight\":5.0}]"));
+
+        // Act
+        List<Fruit> result = fruitService.getAllFruits(List.of("http://a.com/fruits", "http://b.com/fruits"),
+                2, Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana", "Cherry"),
+                result.stream().map(Fruit::getName).toList());
+    }
+
+    @Test
+    void testStreamFruitsFollowsLinkHeaderOnDemand() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenAnswer(invocation -> new StreamedResponse(200,
+                Map.of("Link", List.of("<" + TEST_URL + "?page=2>; rel=\"next\"")),
+                body("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        when(mockHttpClient.open(TEST_URL + "?page=2"))
+                .thenReturn(streamed("[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]"));
+
+        // Act & Assert - the second page is only requested once the first is exhausted
+        try (Stream<Fruit> fruits = fruitService.streamFruits()) {
+            assertEquals("Apple", fruits.findFirst().orElseThrow().getName());
+        }
+        verify(mockHttpClient, never()).open(TEST_URL + "?page=2");
+
+        try (Stream<Fruit> fruits = fruitService.streamFruits()) {
+            assertEquals(List.of("Apple", "Banana"), fruits.map(Fruit::getName).toList());
+        }
+        verify(mockHttpClient, times(1)).open(TEST_URL + "?page=2");
+    }
+
+    @Test
+    void testGetAllFruitsFollowsEnvelopeCursor() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenReturn(streamed(
+                "{\"fruits\":[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}],\"nextCursor\":\"c 2\"}"));
+        when(mockHttpClient.open(TEST_URL + "?cursor=c+2")).thenReturn(streamed(
+                "{\"fruits\":[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}],\"nextCursor\":null}"));
+
+        // Act
+        List<Fruit> result = fruitService.getAllFruits();
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana"), result.stream().map(Fruit::getName).toList());
+    }
+
+    @Test
+    void testClosingTheStreamClosesTheResponse() throws IOException {
+        // Arrange
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayInputStream body = new ByteArrayInputStream(
+                "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5},".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        when(mockHttpClient.open(TEST_URL)).thenReturn(new StreamedResponse(200, Map.of(), body));
+
+        // Act
+        Stream<Fruit> fruits = fruitService.streamFruits();
+        fruits.iterator().next();
+        fruits.close();
+
+        // Assert
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testGetAllFruitsAsync() {
+        // Arrange
+        CompletableFuture<StreamedResponse> pending = new CompletableFuture<>();
+        when(mockHttpClient.openAsync(TEST_URL, Map.of())).thenReturn(pending);
+
+        // Act
+        CompletableFuture<List<Fruit>> result = fruitService.getAllFruitsAsync();
+
+        // Assert - the future completes when the response arrives, without a waiting thread
+        assertFalse(result.isDone());
+        pending.complete(streamed("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]"));
+        assertEquals(List.of(new Fruit("Apple", "Red", 150.5)), result.join());
+    }
+
+    @Test
+    void testGetAllFruitsAsyncFollowsPagination() throws IOException {
+        // Arrange
+        Map<String, List<String>> firstPageHeaders = Map.of("Link", List.of("<" + TEST_URL + "?page=2>; rel=\"next\""));
+        String firstPage = "[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]";
+        String secondPage = "[{\"name\":\"Banana\",\"color\":\"Yellow\",\"weight\":120.0}]";
+        when(mockHttpClient.open(TEST_URL))
+                .thenReturn(new StreamedResponse(200, firstPageHeaders, body(firstPage)));
+        when(mockHttpClient.open(TEST_URL + "?page=2")).thenReturn(streamed(secondPage));
+        when(mockHttpClient.openAsync(TEST_URL, Map.of())).thenReturn(CompletableFuture.completedFuture(
+                new StreamedResponse(200, firstPageHeaders, body(firstPage))));
+        when(mockHttpClient.openAsync(TEST_URL + "?page=2", Map.of()))
+                .thenReturn(CompletableFuture.completedFuture(streamed(secondPage)));
+
+        // Act
+        List<Fruit> sync = fruitService.getAllFruits();
+        List<Fruit> async = fruitService.getAllFruitsAsync().join();
+
+        // Assert
+        assertEquals(List.of("Apple", "Banana"), sync.stream().map(Fruit::getName).toList());
+        assertEquals(sync, async);
+    }
+
+    @Test
+    void testGetAllFruitsAsyncRevalidatesRememberedPages() throws IOException {
+        // Arrange
+        when(mockHttpClient.open(TEST_URL)).thenReturn(new StreamedResponse(200,
+                Map.of("ETag", List.of("\"v1\"")),
+                body("[{\"name\":\"Apple\",\"color\":\"Red\",\"weight\":150.5}]")));
+        when(mockHttpClient.openAsync(TEST_URL, Map.of("If-None-Match", "\"v1\"")))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new StreamedResponse(304, Map.of(), InputStream.nullInputStream())));
+
+        // Act
+        List<Fruit> sync = fruitService.getAllFruits();
+        List<Fruit> async = fruitService.getAllFruitsAsync().join();
+
+        // Assert
+        assertEquals(List.of(new Fruit("Apple", "Red", 150.5)), async);
+        assertEquals(sync, async);
+        verify(mockHttpClient, never()).openAsync(TEST_URL, Map.of());
+    }
+
+    @Test
+    void testGetAllFruitsAsyncPropagatesFailure() {
+        // Arrange
+        when(mockHttpClient.openAsync(TEST_URL, Map.of()))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Network error")));
+
+        // Act
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> fruitService.getAllFruitsAsync().join());
+
+        // Assert
+        assertInstanceOf(IOException.class, exception.getCause());
+        assertEquals("Network error", exception.getCause().getMessage());
+    }
+
     @Test
     void testHttpClientException() throws IOException {
         // Arrange
-        when(mockHttpClient.get(TEST_URL)).thenThrow(new IOException("Network error"));
+        when(mockHttpClient.open(TEST_URL)).thenThrow(new IOException("Network error"));
 
         // Act & Assert
         Exception exception = assertThrows(IOException.class, () -> {
@@ -127,6 +447,14 @@ class FruitServiceTest {
         });
         
         assertEquals("Network error", exception.getMessage());
-        verify(mockHttpClient, times(1)).get(TEST_URL);
+        verify(mockHttpClient, times(1)).open(TEST_URL);
+    }
+
+    private static StreamedResponse streamed(String json) {
+        return new StreamedResponse(200, Map.of("Content-Type", List.of("application/json")), body(json));
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
     }
-} 
\ No newline at end of file
+}
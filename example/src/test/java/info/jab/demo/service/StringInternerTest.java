@@ -0,0 +1,75 @@
+package info.jab.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringInternerTest {
+
+    @Test
+    void testReturnsSameInstanceForEqualCharacters() {
+        // Arrange
+        StringInterner interner = new StringInterner(16);
+
+        // Act
+        String first = interner.intern(new StringBuilder("Red"));
+        String second = interner.intern(new StringBuilder("Red"));
+
+        // Assert
+        assertEquals("Red", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    void testLongValuesAreNotInterned() {
+        // Arrange
+        StringInterner interner = new StringInterner(16);
+        String value = "x".repeat(StringInterner.MAX_LENGTH + 1);
+
+        // Act & Assert
+        assertNotSame(interner.intern(new StringBuilder(value)), interner.intern(new StringBuilder(value)));
+    }
+
+    @Test
+    void testCapacityIsBoundedPowerOfTwo() {
+        // Arrange
+        StringInterner interner = new StringInterner(100);
+
+        // Act - many distinct values only replace each other
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("value" + i, interner.intern("value" + i));
+        }
+
+        // Assert
+        assertEquals(128, interner.capacity());
+        assertEquals(1, new StringInterner(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new StringInterner(0));
+    }
+
+    @Test
+    void testConcurrentInterning() throws Exception {
+        // Arrange
+        StringInterner interner = new StringInterner(64);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                results.add(executor.submit(() -> interner.intern(new StringBuilder("Yellow"))));
+            }
+
+            // Act & Assert - every caller gets an equal value, and the value ends up shared
+            for (Future<String> result : results) {
+                assertEquals("Yellow", result.get());
+            }
+            assertSame(interner.intern("Yellow"), interner.intern("Yellow"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
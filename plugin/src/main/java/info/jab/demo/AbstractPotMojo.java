@@ -0,0 +1,218 @@
+package info.jab.demo;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import info.jab.demo.report.CompositeReportWriter;
+import info.jab.demo.report.ReportListener;
+import info.jab.demo.report.ReportWriter;
+import info.jab.demo.scan.PathFilter;
+import info.jab.demo.scan.ScanIndex;
+import info.jab.demo.scan.ScanListener;
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.ScanResultCache;
+import info.jab.demo.scan.ScanTimings;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestScanner;
+import info.jab.demo.scan.TestSourceInspector;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for the POT goals, sharing the test scanning logic.
+ * Subclasses must stay free of mutable static state so the goals can run in parallel builds;
+ * scan results are shared between executions through {@link ScanResultCache}.
+ */
+public abstract class AbstractPotMojo extends AbstractMojo {
+
+    /**
+     * The current build session, used to scope shared scan results to a single build
+     */
+    @Parameter(defaultValue = "${session}", readonly = true, required = true)
+    protected MavenSession session;
+
+    /**
+     * Reuse the scan index from the previous build and only rescan changed directories
+     */
+    @Parameter(property = "pot.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * Glob patterns, relative to each test source root, of the files to consider
+     */
+    @Parameter(property = "pot.includes")
+    private List<String> includes;
+
+    /**
+     * Glob patterns, relative to each test source root, of files and directories to skip
+     */
+    @Parameter(property = "pot.excludes")
+    private List<String> excludes;
+
+    /**
+     * Read every test source to count test methods, parameterized tests and disabled tests
+     */
+    @Parameter(property = "pot.countMethods", defaultValue = "false")
+    protected boolean countMethods;
+
+    /**
+     * Write the per-file and per-directory results to machine-readable report files
+     */
+    @Parameter(property = "pot.report", defaultValue = "true")
+    protected boolean report;
+
+    /**
+     * Formats of the report files: json, csv or both
+     */
+    @Parameter(property = "pot.reportFormats", defaultValue = "json")
+    private List<String> reportFormats;
+
+    /**
+     * Also write the phase timings of the scan into the JSON report
+     */
+    @Parameter(property = "pot.reportTimings", defaultValue = "false")
+    protected boolean reportTimings;
+
+    /**
+     * Opens the report files in a directory, or returns null if reports are disabled.
+     *
+     * @param directory the report directory
+     * @return the report writer, or null
+     * @throws MojoExecutionException if the report files cannot be created
+     */
+    protected ReportWriter openReport(Path directory) throws MojoExecutionException {
+        if (!report) {
+            return null;
+        }
+        try {
+            return CompositeReportWriter.open(directory,
+                reportFormats == null || reportFormats.isEmpty() ? List.of("json") : reportFormats, countMethods);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MojoExecutionException("Unable to create test report in " + directory, e);
+        }
+    }
+
+    /**
+     * Counts the unit, integration and end-to-end tests in the test source roots of a project.
+     *
+     * @param project      the project to scan
+     * @param indexPath    the scan index of the project
+     * @param parallelism  the number of threads used to walk the test tree
+     * @param reportWriter the report receiving every test file and directory, or null
+     * @return ScanResult containing the counts and scan index statistics
+     * @throws MojoExecutionException if the test tree cannot be read
+     */
+    protected ScanResult countTestFiles(MavenProject project, Path indexPath, int parallelism,
+            ReportWriter reportWriter) throws MojoExecutionException {
+        List<Path> roots = testSourceRoots(project);
+        
+        if (roots.isEmpty()) {
+            getLog().info("No test source roots found in " + project.getBasedir());
+            return new ScanResult(TestCountResult.EMPTY, 0, 0, 0);
+        }
+        
+        PathFilter filter = new PathFilter(includes, excludes);
+        ScanIndex previousIndex = incremental ? loadIndex(indexPath) : ScanIndex.empty();
+        ScanListener listener = reportWriter == null ? this::logTestFile
+            : new ReportListener(reportWriter, project.getArtifactId(), project.getBasedir().toPath(),
+                this::logTestFile);
+        TestScanner scanner = new TestScanner(previousIndex, filter, listener, parallelism,
+            countMethods ? new TestSourceInspector() : null);
+        String variant = filter.describe() + ";countMethods=" + countMethods;
+        
+        ScanResult total = null;
+        try {
+            for (Path root : roots) {
+                ScanResult result = ScanResultCache.shared().get(session.getRequest().getStartTime(), root,
+                    variant, scanner::scan);
+                if (result.isReused()) {
+                    getLog().debug("Reusing scan result of this build for " + root);
+                    scanner.adopt(result, root);
+                    if (reportWriter != null) {
+                        // The earlier execution reported to its own listener
+                        TestScanner.replay(result.getIndex(), root, countMethods, listener);
+                    }
+                }
+                total = total == null ? result : total.plus(result);
+            }
+        } catch (Exception e) {
+            throw new MojoExecutionException("Error walking test directory", e);
+        }
+        
+        if (incremental) {
+            try {
+                scanner.getIndex().save(indexPath);
+            } catch (IOException e) {
+                getLog().warn("Unable to save scan index " + indexPath + ": " + e.getMessage());
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Returns the existing test compile source roots of a project, including generated ones.
+     * Roots nested inside another root are dropped so no file is counted twice.
+     */
+    private static List<Path> testSourceRoots(MavenProject project) {
+        List<Path> roots = new ArrayList<>();
+        for (String root : project.getTestCompileSourceRoots()) {
+            Path path = Paths.get(root).toAbsolutePath().normalize();
+            if (Files.isDirectory(path) && !roots.contains(path)) {
+                roots.add(path);
+            }
+        }
+        roots.removeIf(root -> roots.stream().anyMatch(other -> !other.equals(root) && root.startsWith(other)));
+        return roots;
+    }
+
+    /**
+     * Logs where the time of a scan went.
+     *
+     * @param result the scan result
+     */
+    protected void logTimings(ScanResult result) {
+        ScanTimings timings = result.getTimings();
+        getLog().info(String.format(Locale.ROOT,
+            "Scan Timings: walk %.1f ms, filter %.1f ms, inspect %.1f ms, report %.1f ms (summed over threads); "
+                + "%d files in %d dirs, %d files/s",
+            timings.getWalkNanos() / 1e6, timings.getFilterNanos() / 1e6, timings.getInspectNanos() / 1e6,
+            timings.getReportNanos() / 1e6, timings.getVisitedFiles(), result.getVisitedDirectories(),
+            result.getFilesPerSecond()));
+    }
+
+    /**
+     * Converts nanoseconds to whole milliseconds for log output.
+     *
+     * @param nanos the duration in nanoseconds
+     * @return the duration in milliseconds
+     */
+    protected static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+    
+    private ScanIndex loadIndex(Path indexPath) {
+        try {
+            return ScanIndex.load(indexPath);
+        } catch (IOException e) {
+            getLog().warn("Ignoring unreadable scan index " + indexPath + ": " + e.getMessage());
+            return ScanIndex.empty();
+        }
+    }
+    
+    private void logTestFile(Path file, TestKind kind) {
+        if (getLog().isDebugEnabled()) {
+            getLog().debug("Found " + kind.name().toLowerCase(Locale.ROOT) + " test: " + file);
+        }
+    }
+}
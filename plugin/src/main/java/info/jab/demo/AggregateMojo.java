@@ -0,0 +1,125 @@
+package info.jab.demo;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import info.jab.demo.report.ReportWriter;
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.TestCountResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the tests of every module in the reactor in a single pass.
+ * Modules are scanned concurrently on a bounded thread pool and reported in one table.
+ * The report files merge the records of all modules, each tagged with its module.
+ */
+@Mojo(name = "aggregate", defaultPhase = LifecyclePhase.VERIFY, aggregator = true, threadSafe = true)
+public class AggregateMojo extends AbstractPotMojo {
+
+    /**
+     * Maximum number of modules scanned at the same time; 0 uses one thread per processor
+     */
+    @Parameter(property = "pot.threads", defaultValue = "0")
+    private int threads;
+
+    /**
+     * Directory the merged reactor report files are written to
+     */
+    @Parameter(property = "pot.reportDirectory", defaultValue = "${session.topLevelProject.build.directory}/pot")
+    private File reportDirectory;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        List<MavenProject> projects = session.getProjects();
+        getLog().info("POT Maven Plugin aggregating " + projects.size() + " modules...");
+        long start = System.nanoTime();
+
+        int poolSize = Math.max(1, Math.min(projects.size(),
+            threads > 0 ? threads : Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize);
+        List<TestCountResult> results = new ArrayList<>(projects.size());
+        try (ReportWriter reportWriter = openReport(reportDirectory.toPath())) {
+            long scanStart = System.nanoTime();
+            List<Future<ScanResult>> futures = new ArrayList<>(projects.size());
+            for (MavenProject module : projects) {
+                Path indexPath = Paths.get(module.getBuild().getDirectory(), "pot", "scan-index.txt");
+                futures.add(executor.submit(() -> countTestFiles(module, indexPath, 1, reportWriter)));
+            }
+            ScanResult total = null;
+            for (Future<ScanResult> future : futures) {
+                ScanResult result = future.get();
+                results.add(result.getCounts());
+                total = total == null ? result : total.plus(result);
+            }
+            // Modules are scanned concurrently, so the summed module times overstate the scan
+            long summedNanos = total.getElapsedNanos();
+            total = total.withElapsedNanos(System.nanoTime() - scanStart);
+            if (reportWriter != null) {
+                reportWriter.writeTotals(total.getCounts());
+                if (reportTimings) {
+                    reportWriter.writeTimings(total);
+                }
+            }
+            getLog().info("Scan time: " + millis(total.getElapsedNanos()) + " ms wall-clock, "
+                + millis(summedNanos) + " ms summed over modules");
+            logTimings(total);
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to write test report in " + reportDirectory, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while counting test files", e);
+        } catch (ExecutionException e) {
+            getLog().error("Error counting test files", e.getCause());
+            throw new MojoExecutionException("Error counting test files", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logTable(projects, results);
+        getLog().info("POT goal time: " + millis(System.nanoTime() - start) + " ms");
+        getLog().info("POT Maven Plugin completed successfully!");
+    }
+
+    private void logTable(List<MavenProject> projects, List<TestCountResult> results) {
+        int width = "TOTAL".length();
+        for (MavenProject module : projects) {
+            width = Math.max(width, module.getArtifactId().length());
+        }
+        String format = "%-" + width + "s %8s %12s %8s %8s" + (countMethods ? " %8s" : "");
+        String separator = "-".repeat(width + (countMethods ? 48 : 39));
+
+        getLog().info("Test Count Summary:");
+        getLog().info(separator);
+        getLog().info(String.format(format, "Module", "Unit", "Integration", "E2E", "Total", "Methods"));
+        getLog().info(separator);
+
+        TestCountResult total = TestCountResult.EMPTY;
+        for (int i = 0; i < projects.size(); i++) {
+            TestCountResult counts = results.get(i);
+            total = total.plus(counts);
+            getLog().info(formatRow(format, projects.get(i).getArtifactId(), counts));
+        }
+        getLog().info(separator);
+        getLog().info(formatRow(format, "TOTAL", total));
+        getLog().info(separator);
+    }
+
+    private static String formatRow(String format, String name, TestCountResult counts) {
+        return String.format(format, name, counts.getUnitTestCount(), counts.getIntegrationTestCount(),
+            counts.getE2eTestCount(), counts.getTotalCount(), counts.getMethodCounts().getTestMethodCount());
+    }
+}
@@ -1,6 +1,5 @@
 package info.jab.demo;
 
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -8,17 +7,20 @@ import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.concurrent.atomic.AtomicInteger;
+import info.jab.demo.report.ReportWriter;
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 /**
  * POT Maven Plugin - Programming Overload Therapy
  * This plugin provides a simple way to enhance your project's capabilities.
  */
-@Mojo(name = "enhance", defaultPhase = LifecyclePhase.VERIFY)
-public class App extends AbstractMojo {
+@Mojo(name = "enhance", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class App extends AbstractPotMojo {
 
     /**
      * Message to display when the mojo executes
@@ -32,85 +34,72 @@ public class App extends AbstractMojo {
     @Parameter(defaultValue = "${project}", readonly = true, required = true)
     private MavenProject project;
 
+    /**
+     * Location of the persisted scan index used by incremental scans
+     */
+    @Parameter(property = "pot.indexFile", defaultValue = "${project.build.directory}/pot/scan-index.txt")
+    private File indexFile;
+
+    /**
+     * Number of threads used to walk the test tree; 1 walks sequentially, 0 uses one thread per processor
+     */
+    @Parameter(property = "pot.parallelism", defaultValue = "1")
+    private int parallelism;
+
+    /**
+     * Directory the test-summary report files are written to
+     */
+    @Parameter(property = "pot.reportDirectory", defaultValue = "${project.build.directory}/pot")
+    private File reportDirectory;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         getLog().info("POT Maven Plugin executing...");
         getLog().info(message);
+        long start = System.nanoTime();
         
-        try {
+        try (ReportWriter reportWriter = openReport(reportDirectory.toPath())) {
             // Count the test files
-            TestCountResult testCounts = countTestFiles();
+            ScanResult scanResult = countTestFiles(project, indexFile.toPath(), parallelism, reportWriter);
+            TestCountResult testCounts = scanResult.getCounts();
+            if (reportWriter != null) {
+                reportWriter.writeTotals(testCounts);
+                if (reportTimings) {
+                    reportWriter.writeTimings(scanResult);
+                }
+            }
             
             // Log the test counts
             getLog().info("Test Count Summary:");
             getLog().info("------------------");
             getLog().info("Unit Tests (*Test.java): " + testCounts.getUnitTestCount());
             getLog().info("Integration Tests (*IT.java): " + testCounts.getIntegrationTestCount());
-            getLog().info("Total Tests: " + (testCounts.getUnitTestCount() + testCounts.getIntegrationTestCount()));
+            getLog().info("E2E Tests (*E2E.java): " + testCounts.getE2eTestCount());
+            getLog().info("Total Tests: " + testCounts.getTotalCount());
+            if (countMethods) {
+                TestMethodCounts methods = testCounts.getMethodCounts();
+                getLog().info("Test Methods: " + methods.getTestMethodCount()
+                    + " (parameterized: " + methods.getParameterizedTestCount()
+                    + ", disabled: " + methods.getDisabledTestCount() + ")");
+            }
+            if (scanResult.isReused()) {
+                getLog().info("Scan Cache: reused scan from earlier in this build");
+            } else {
+                getLog().info("Scan Cache: " + scanResult.getCacheHits() + " cache hits, "
+                    + scanResult.getRescannedDirectories() + " rescanned dirs ("
+                    + TimeUnit.NANOSECONDS.toMillis(scanResult.getElapsedNanos()) + " ms)");
+                logTimings(scanResult);
+            }
             getLog().info("------------------");
+            if (reportWriter != null) {
+                getLog().info("Test report written to " + reportDirectory);
+            }
         } catch (Exception e) {
             getLog().error("Error counting test files", e);
             throw new MojoExecutionException("Error counting test files", e);
         }
         
+        getLog().info("POT goal time: " + millis(System.nanoTime() - start) + " ms");
         getLog().info("POT Maven Plugin completed successfully!");
     }
-    
-    /**
-     * Counts the unit tests and integration tests in the project.
-     * 
-     * @return TestCountResult containing the counts
-     */
-    private TestCountResult countTestFiles() throws MojoExecutionException {
-        AtomicInteger unitTestCount = new AtomicInteger(0);
-        AtomicInteger integrationTestCount = new AtomicInteger(0);
-        
-        Path testSourceDirectory = Paths.get(project.getBasedir().getAbsolutePath(), "src", "test");
-        
-        if (!Files.exists(testSourceDirectory)) {
-            getLog().info("Test directory not found: " + testSourceDirectory);
-            return new TestCountResult(0, 0);
-        }
-        
-        try {
-            Files.walk(testSourceDirectory)
-                .filter(Files::isRegularFile)
-                .forEach(path -> {
-                    String fileName = path.getFileName().toString();
-                    
-                    if (fileName.endsWith("Test.java")) {
-                        unitTestCount.incrementAndGet();
-                        getLog().debug("Found unit test: " + path);
-                    } else if (fileName.endsWith("IT.java")) {
-                        integrationTestCount.incrementAndGet();
-                        getLog().debug("Found integration test: " + path);
-                    }
-                });
-        } catch (Exception e) {
-            throw new MojoExecutionException("Error walking test directory", e);
-        }
-        
-        return new TestCountResult(unitTestCount.get(), integrationTestCount.get());
-    }
-    
-    /**
-     * Simple class to hold the test count results
-     */
-    private static class TestCountResult {
-        private final int unitTestCount;
-        private final int integrationTestCount;
-        
-        public TestCountResult(int unitTestCount, int integrationTestCount) {
-            this.unitTestCount = unitTestCount;
-            this.integrationTestCount = integrationTestCount;
-        }
-        
-        public int getUnitTestCount() {
-            return unitTestCount;
-        }
-        
-        public int getIntegrationTestCount() {
-            return integrationTestCount;
-        }
-    }
 }
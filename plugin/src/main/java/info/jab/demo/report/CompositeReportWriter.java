@@ -0,0 +1,118 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Forwards every record to several report writers, one per requested format.
+ */
+public class CompositeReportWriter implements ReportWriter {
+    private final List<ReportWriter> writers;
+
+    public CompositeReportWriter(List<ReportWriter> writers) {
+        this.writers = Collections.unmodifiableList(new ArrayList<>(writers));
+    }
+
+    /**
+     * Opens the report files of the given formats in a directory, creating it if needed.
+     *
+     * @param directory      the report directory
+     * @param formats        the formats to write, {@code json} and/or {@code csv}
+     * @param includeMethods whether test method counts are written
+     * @return a writer covering all formats
+     * @throws IOException if a report file cannot be created
+     * @throws IllegalArgumentException if a format is unknown
+     */
+    public static CompositeReportWriter open(Path directory, List<String> formats, boolean includeMethods)
+            throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String format : formats) {
+            String name = format.trim().toLowerCase(Locale.ROOT);
+            if (!name.equals("json") && !name.equals("csv")) {
+                throw new IllegalArgumentException("Unknown report format: " + format);
+            }
+            if (!names.contains(name)) {
+                names.add(name);
+            }
+        }
+
+        Files.createDirectories(directory);
+        List<ReportWriter> writers = new ArrayList<>(names.size());
+        try {
+            for (String name : names) {
+                writers.add(name.equals("json")
+                    ? new JsonReportWriter(directory.resolve(JsonReportWriter.FILE_NAME), includeMethods)
+                    : new CsvReportWriter(directory.resolve(CsvReportWriter.FILE_NAME), includeMethods));
+            }
+        } catch (IOException e) {
+            for (ReportWriter writer : writers) {
+                try {
+                    writer.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return new CompositeReportWriter(writers);
+    }
+
+    @Override
+    public void writeTestFile(String module, String path, TestKind kind, TestMethodCounts methodCounts)
+            throws IOException {
+        for (ReportWriter writer : writers) {
+            writer.writeTestFile(module, path, kind, methodCounts);
+        }
+    }
+
+    @Override
+    public void writeDirectory(String module, String path, TestCountResult counts, TestCountResult totalCounts)
+            throws IOException {
+        for (ReportWriter writer : writers) {
+            writer.writeDirectory(module, path, counts, totalCounts);
+        }
+    }
+
+    @Override
+    public void writeTotals(TestCountResult totals) throws IOException {
+        for (ReportWriter writer : writers) {
+            writer.writeTotals(totals);
+        }
+    }
+
+    @Override
+    public void writeTimings(ScanResult result) throws IOException {
+        for (ReportWriter writer : writers) {
+            writer.writeTimings(result);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (ReportWriter writer : writers) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
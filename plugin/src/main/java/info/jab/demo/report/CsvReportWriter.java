@@ -0,0 +1,122 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes the scan report as CSV with one row per record.
+ *
+ * File rows carry the kind of test, directory rows the counts of their whole sub-tree
+ * and a final {@code total} row the overall counts. Method columns are left empty when
+ * test sources were not inspected.
+ */
+public class CsvReportWriter implements ReportWriter {
+    public static final String FILE_NAME = "test-summary.csv";
+    static final String HEADER = "type,module,path,kind,unit,integration,e2e,total,testMethods,parameterizedTests,disabledTests";
+
+    private final Writer writer;
+    private final boolean includeMethods;
+
+    /**
+     * Creates a writer for a report file, replacing any existing file.
+     *
+     * @param file           the report file
+     * @param includeMethods whether test method counts are written
+     * @throws IOException if the file cannot be created
+     */
+    public CsvReportWriter(Path file, boolean includeMethods) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8), includeMethods);
+    }
+
+    /**
+     * Creates a writer for an arbitrary character stream.
+     *
+     * @param writer         the destination, closed when this writer is closed
+     * @param includeMethods whether test method counts are written
+     * @throws IOException if the header cannot be written
+     */
+    public CsvReportWriter(Writer writer, boolean includeMethods) throws IOException {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.includeMethods = includeMethods;
+        this.writer.write(HEADER);
+        this.writer.write('\n');
+    }
+
+    @Override
+    public synchronized void writeTestFile(String module, String path, TestKind kind, TestMethodCounts methodCounts)
+            throws IOException {
+        StringBuilder row = startRow("file", module, path);
+        row.append(kind.name().toLowerCase(Locale.ROOT)).append(",,,,,");
+        appendMethodCounts(row, methodCounts);
+        writeRow(row);
+    }
+
+    @Override
+    public synchronized void writeDirectory(String module, String path, TestCountResult counts,
+            TestCountResult totalCounts) throws IOException {
+        StringBuilder row = startRow("directory", module, path);
+        appendCounts(row, totalCounts);
+        writeRow(row);
+    }
+
+    @Override
+    public synchronized void writeTotals(TestCountResult totals) throws IOException {
+        StringBuilder row = startRow("total", "", "");
+        appendCounts(row, totals);
+        writeRow(row);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeRow(StringBuilder row) throws IOException {
+        writer.append(row.append('\n'));
+    }
+
+    private static StringBuilder startRow(String type, String module, String path) {
+        StringBuilder row = new StringBuilder(128);
+        row.append(type).append(',');
+        appendField(row, module);
+        row.append(',');
+        appendField(row, path);
+        return row.append(',');
+    }
+
+    private void appendCounts(StringBuilder row, TestCountResult counts) {
+        row.append(',').append(counts.getUnitTestCount())
+            .append(',').append(counts.getIntegrationTestCount())
+            .append(',').append(counts.getE2eTestCount())
+            .append(',').append(counts.getTotalCount())
+            .append(',');
+        appendMethodCounts(row, counts.getMethodCounts());
+    }
+
+    private void appendMethodCounts(StringBuilder row, TestMethodCounts methodCounts) {
+        if (includeMethods && methodCounts != null) {
+            row.append(methodCounts.getTestMethodCount())
+                .append(',').append(methodCounts.getParameterizedTestCount())
+                .append(',').append(methodCounts.getDisabledTestCount());
+        } else {
+            row.append(",,");
+        }
+    }
+
+    static void appendField(StringBuilder row, String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            row.append(value);
+        } else {
+            row.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
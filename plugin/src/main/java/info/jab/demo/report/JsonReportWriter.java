@@ -0,0 +1,188 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.ScanTimings;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes the scan report as a JSON document with one element per record in a
+ * {@code records} array, followed by the overall {@code totals} and, if requested,
+ * the {@code timings} of the scan.
+ *
+ * Every record carries its module, so reports of several modules can be merged by
+ * concatenating their record arrays.
+ */
+public class JsonReportWriter implements ReportWriter {
+    public static final String FILE_NAME = "test-summary.json";
+    static final int VERSION = 1;
+
+    private final Writer writer;
+    private final boolean includeMethods;
+    private boolean firstRecord = true;
+    private boolean recordsClosed;
+
+    /**
+     * Creates a writer for a report file, replacing any existing file.
+     *
+     * @param file           the report file
+     * @param includeMethods whether test method counts are written
+     * @throws IOException if the file cannot be created
+     */
+    public JsonReportWriter(Path file, boolean includeMethods) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8), includeMethods);
+    }
+
+    /**
+     * Creates a writer for an arbitrary character stream.
+     *
+     * @param writer         the destination, closed when this writer is closed
+     * @param includeMethods whether test method counts are written
+     * @throws IOException if the header cannot be written
+     */
+    public JsonReportWriter(Writer writer, boolean includeMethods) throws IOException {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+        this.includeMethods = includeMethods;
+        this.writer.write("{\n  \"format\": \"pot-test-summary\",\n  \"version\": " + VERSION
+            + ",\n  \"records\": [");
+    }
+
+    @Override
+    public synchronized void writeTestFile(String module, String path, TestKind kind, TestMethodCounts methodCounts)
+            throws IOException {
+        StringBuilder record = startRecord("file", module, path);
+        record.append(", \"kind\": \"").append(kind.name().toLowerCase(Locale.ROOT)).append('"');
+        if (includeMethods && methodCounts != null) {
+            record.append(", ");
+            appendMethodCounts(record, methodCounts);
+        }
+        writeRecord(record.append('}'));
+    }
+
+    @Override
+    public synchronized void writeDirectory(String module, String path, TestCountResult counts,
+            TestCountResult totalCounts) throws IOException {
+        StringBuilder record = startRecord("directory", module, path);
+        record.append(", \"counts\": ");
+        appendCounts(record, counts);
+        record.append(", \"totalCounts\": ");
+        appendCounts(record, totalCounts);
+        writeRecord(record.append('}'));
+    }
+
+    @Override
+    public synchronized void writeTotals(TestCountResult totals) throws IOException {
+        closeRecords();
+        StringBuilder json = new StringBuilder(",\n  \"totals\": ");
+        appendCounts(json, totals);
+        writer.write(json.toString());
+    }
+
+    @Override
+    public synchronized void writeTimings(ScanResult result) throws IOException {
+        closeRecords();
+        ScanTimings timings = result.getTimings();
+        writer.write(",\n  \"timings\": {\"elapsedNanos\": " + result.getElapsedNanos()
+            + ", \"walkNanos\": " + timings.getWalkNanos()
+            + ", \"filterNanos\": " + timings.getFilterNanos()
+            + ", \"inspectNanos\": " + timings.getInspectNanos()
+            + ", \"reportNanos\": " + timings.getReportNanos()
+            + ", \"visitedFiles\": " + timings.getVisitedFiles()
+            + ", \"visitedDirectories\": " + result.getVisitedDirectories()
+            + ", \"filesPerSecond\": " + result.getFilesPerSecond()
+            + ", \"reused\": " + result.isReused() + "}");
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            closeRecords();
+            writer.write("\n}\n");
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void closeRecords() throws IOException {
+        if (!recordsClosed) {
+            writer.write(firstRecord ? "]" : "\n  ]");
+            recordsClosed = true;
+        }
+    }
+
+    private void writeRecord(CharSequence record) throws IOException {
+        if (recordsClosed) {
+            throw new IllegalStateException("Records cannot be written after the totals");
+        }
+        writer.write(firstRecord ? "\n    " : ",\n    ");
+        writer.append(record);
+        firstRecord = false;
+    }
+
+    private static StringBuilder startRecord(String type, String module, String path) {
+        StringBuilder record = new StringBuilder(128);
+        record.append("{\"type\": \"").append(type).append("\", \"module\": ");
+        appendString(record, module);
+        record.append(", \"path\": ");
+        appendString(record, path);
+        return record;
+    }
+
+    private void appendCounts(StringBuilder json, TestCountResult counts) {
+        json.append("{\"unit\": ").append(counts.getUnitTestCount())
+            .append(", \"integration\": ").append(counts.getIntegrationTestCount())
+            .append(", \"e2e\": ").append(counts.getE2eTestCount())
+            .append(", \"total\": ").append(counts.getTotalCount());
+        if (includeMethods) {
+            json.append(", ");
+            appendMethodCounts(json, counts.getMethodCounts());
+        }
+        json.append('}');
+    }
+
+    private static void appendMethodCounts(StringBuilder json, TestMethodCounts methodCounts) {
+        json.append("\"testMethods\": ").append(methodCounts.getTestMethodCount())
+            .append(", \"parameterizedTests\": ").append(methodCounts.getParameterizedTestCount())
+            .append(", \"disabledTests\": ").append(methodCounts.getDisabledTestCount());
+    }
+
+    static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+}
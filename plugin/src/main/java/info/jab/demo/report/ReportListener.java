@@ -0,0 +1,70 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.ScanListener;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Scan listener that streams every test file and directory into a report as the scanner
+ * finds them, with paths relative to the module base directory.
+ *
+ * Write failures are rethrown as {@link UncheckedIOException}, which the scanner turns
+ * back into the {@link IOException} of the scan.
+ */
+public class ReportListener implements ScanListener {
+    private final ReportWriter writer;
+    private final String module;
+    private final Path basedir;
+    private final ScanListener delegate;
+
+    /**
+     * Creates a listener.
+     *
+     * @param writer   the report to write to
+     * @param module   the module name recorded with every record
+     * @param basedir  the directory paths are made relative to
+     * @param delegate a listener also notified of every test file
+     */
+    public ReportListener(ReportWriter writer, String module, Path basedir, ScanListener delegate) {
+        this.writer = writer;
+        this.module = module;
+        this.basedir = basedir.toAbsolutePath().normalize();
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void testFileFound(Path file, TestKind kind) {
+        testFileFound(file, kind, null);
+    }
+
+    @Override
+    public void testFileFound(Path file, TestKind kind, TestMethodCounts methodCounts) {
+        delegate.testFileFound(file, kind, methodCounts);
+        try {
+            writer.writeTestFile(module, relativize(file), kind, methodCounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void directoryScanned(Path directory, TestCountResult counts, TestCountResult totalCounts) {
+        delegate.directoryScanned(directory, counts, totalCounts);
+        try {
+            writer.writeDirectory(module, relativize(directory), counts, totalCounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String relativize(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        Path relative = absolute.startsWith(basedir) ? basedir.relativize(absolute) : absolute;
+        return relative.toString().replace('\\', '/');
+    }
+}
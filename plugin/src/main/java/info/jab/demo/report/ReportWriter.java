@@ -0,0 +1,60 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streaming writer for machine-readable scan reports.
+ *
+ * Records are written as soon as they are received and never buffered beyond the
+ * underlying output stream, so memory use does not depend on the size of the scanned
+ * trees. Implementations must be safe to call from several threads at once.
+ */
+public interface ReportWriter extends Closeable {
+
+    /**
+     * Writes the record of a single test file.
+     *
+     * @param module       the module the file belongs to
+     * @param path         the file path relative to the module base directory
+     * @param kind         the kind of test
+     * @param methodCounts the method counts, or null if test sources were not inspected
+     * @throws IOException if the record cannot be written
+     */
+    void writeTestFile(String module, String path, TestKind kind, TestMethodCounts methodCounts) throws IOException;
+
+    /**
+     * Writes the record of a directory.
+     *
+     * @param module      the module the directory belongs to
+     * @param path        the directory path relative to the module base directory
+     * @param counts      the counts of the test files directly inside the directory
+     * @param totalCounts the counts of the whole sub-tree
+     * @throws IOException if the record cannot be written
+     */
+    void writeDirectory(String module, String path, TestCountResult counts, TestCountResult totalCounts)
+        throws IOException;
+
+    /**
+     * Writes the overall totals. Called at most once, after all other records.
+     *
+     * @param totals the totals of the report
+     * @throws IOException if the totals cannot be written
+     */
+    void writeTotals(TestCountResult totals) throws IOException;
+
+    /**
+     * Writes the timings of the scan. Called at most once, after the totals. Formats
+     * without a place for timings ignore them.
+     *
+     * @param result the scan result holding the timings
+     * @throws IOException if the timings cannot be written
+     */
+    default void writeTimings(ScanResult result) throws IOException {
+    }
+}
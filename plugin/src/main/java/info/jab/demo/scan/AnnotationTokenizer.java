@@ -0,0 +1,362 @@
+package info.jab.demo.scan;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental tokenizer that counts test annotations in Java source bytes.
+ *
+ * Input is fed in chunks of any size; all state needed to resume in the middle of a
+ * comment, literal or annotation name is kept in a few fields, so memory use does not
+ * depend on the file size. Comments, string, character and text block literals are
+ * skipped, and qualified names such as {@code @org.junit.jupiter.api.Test} are matched
+ * by their last segment. The source is handled as raw bytes, which is safe for UTF-8
+ * and Latin-1 encoded sources since every token that matters is ASCII.
+ *
+ * A test method counts as disabled when it carries {@code @Disabled} or {@code @Ignore}
+ * itself or is declared, at any nesting level, in a type that carries one. Declarations
+ * are told apart by braces and semicolons outside parentheses, and a type by its
+ * {@code class}, {@code interface}, {@code enum} or {@code record} keyword.
+ */
+final class AnnotationTokenizer {
+    private static final int MAX_NAME_LENGTH = 128;
+    private static final int MAX_KEYWORD_LENGTH = 9;
+    private static final int NOT_DISABLED = Integer.MAX_VALUE;
+
+    private static final int CODE = 0;
+    private static final int SLASH = 1;
+    private static final int LINE_COMMENT = 2;
+    private static final int BLOCK_COMMENT = 3;
+    private static final int BLOCK_COMMENT_STAR = 4;
+    private static final int QUOTE = 5;
+    private static final int DOUBLE_QUOTE = 6;
+    private static final int STRING = 7;
+    private static final int STRING_ESCAPE = 8;
+    private static final int TEXT_BLOCK = 9;
+    private static final int TEXT_BLOCK_ESCAPE = 10;
+    private static final int CHAR = 11;
+    private static final int CHAR_ESCAPE = 12;
+    private static final int AT = 13;
+    private static final int ANNOTATION = 14;
+
+    private final byte[] name = new byte[MAX_NAME_LENGTH];
+    private int nameLength;
+    private int segmentStart;
+    private int state = CODE;
+    private int textBlockQuotes;
+
+    private final byte[] word = new byte[MAX_KEYWORD_LENGTH];
+    private int wordLength;
+    private int braceDepth;
+    private int parenDepth;
+    private int disabledDepth = NOT_DISABLED;
+    private boolean pendingTest;
+    private boolean pendingDisabled;
+    private boolean pendingDisabledType;
+
+    private int testMethods;
+    private int parameterizedTests;
+    private int disabledTests;
+
+    /**
+     * Consumes all remaining bytes of the buffer.
+     *
+     * @param buffer the next chunk of source bytes
+     */
+    void feed(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            accept(buffer.get());
+        }
+    }
+
+    /**
+     * Consumes a range of a byte array.
+     *
+     * @param bytes  the source bytes
+     * @param offset the first byte to consume
+     * @param length the number of bytes to consume
+     */
+    void feed(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            accept(bytes[i]);
+        }
+    }
+
+    /**
+     * Completes tokenization and returns the counts found so far.
+     *
+     * @return the method counts
+     */
+    TestMethodCounts finish() {
+        if (state == ANNOTATION) {
+            endAnnotation();
+        }
+        endDeclaration();
+        state = CODE;
+        return new TestMethodCounts(testMethods, parameterizedTests, disabledTests);
+    }
+
+    private void accept(byte b) {
+        switch (state) {
+            case CODE:
+                code(b);
+                break;
+            case SLASH:
+                if (b == '/') {
+                    state = LINE_COMMENT;
+                } else if (b == '*') {
+                    state = BLOCK_COMMENT;
+                } else {
+                    state = CODE;
+                    code(b);
+                }
+                break;
+            case LINE_COMMENT:
+                if (b == '\n' || b == '\r') {
+                    state = CODE;
+                }
+                break;
+            case BLOCK_COMMENT:
+                if (b == '*') {
+                    state = BLOCK_COMMENT_STAR;
+                }
+                break;
+            case BLOCK_COMMENT_STAR:
+                if (b == '/') {
+                    state = CODE;
+                } else if (b != '*') {
+                    state = BLOCK_COMMENT;
+                }
+                break;
+            case QUOTE:
+                if (b == '"') {
+                    state = DOUBLE_QUOTE;
+                } else {
+                    state = STRING;
+                    string(b);
+                }
+                break;
+            case DOUBLE_QUOTE:
+                if (b == '"') {
+                    state = TEXT_BLOCK;
+                    textBlockQuotes = 0;
+                } else {
+                    // An empty string literal
+                    state = CODE;
+                    code(b);
+                }
+                break;
+            case STRING:
+                string(b);
+                break;
+            case STRING_ESCAPE:
+                state = STRING;
+                break;
+            case TEXT_BLOCK:
+                if (b == '"') {
+                    if (++textBlockQuotes == 3) {
+                        state = CODE;
+                    }
+                } else {
+                    textBlockQuotes = 0;
+                    if (b == '\\') {
+                        state = TEXT_BLOCK_ESCAPE;
+                    }
+                }
+                break;
+            case TEXT_BLOCK_ESCAPE:
+                state = TEXT_BLOCK;
+                break;
+            case CHAR:
+                if (b == '\\') {
+                    state = CHAR_ESCAPE;
+                } else if (b == '\'' || b == '\n') {
+                    state = CODE;
+                }
+                break;
+            case CHAR_ESCAPE:
+                state = CHAR;
+                break;
+            case AT:
+                if (isWhitespace(b)) {
+                    break;
+                }
+                if (isIdentifierPart(b)) {
+                    state = ANNOTATION;
+                    nameLength = 0;
+                    segmentStart = 0;
+                    appendName(b);
+                } else {
+                    state = CODE;
+                    code(b);
+                }
+                break;
+            case ANNOTATION:
+                if (isIdentifierPart(b)) {
+                    appendName(b);
+                } else if (b == '.') {
+                    appendName(b);
+                    segmentStart = nameLength;
+                } else {
+                    endAnnotation();
+                    state = CODE;
+                    code(b);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown tokenizer state " + state);
+        }
+    }
+
+    private void code(byte b) {
+        if (isIdentifierPart(b)) {
+            if (wordLength < MAX_KEYWORD_LENGTH) {
+                word[wordLength] = b;
+            }
+            wordLength++;
+            return;
+        }
+        endWord();
+        switch (b) {
+            case '/':
+                state = SLASH;
+                break;
+            case '"':
+                state = QUOTE;
+                break;
+            case '\'':
+                state = CHAR;
+                break;
+            case '@':
+                state = AT;
+                break;
+            case '(':
+                parenDepth++;
+                break;
+            case ')':
+                parenDepth = Math.max(parenDepth - 1, 0);
+                break;
+            case '{':
+                if (parenDepth == 0) {
+                    boolean disabledType = pendingDisabledType && !pendingTest;
+                    endDeclaration();
+                    braceDepth++;
+                    if (disabledType && disabledDepth == NOT_DISABLED) {
+                        disabledDepth = braceDepth;
+                    }
+                }
+                break;
+            case '}':
+                if (parenDepth == 0) {
+                    endDeclaration();
+                    if (braceDepth == disabledDepth) {
+                        disabledDepth = NOT_DISABLED;
+                    }
+                    braceDepth = Math.max(braceDepth - 1, 0);
+                }
+                break;
+            case ';':
+                if (parenDepth == 0) {
+                    endDeclaration();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Notes a type keyword following a disabling annotation, so that the body it opens
+     * disables the test methods declared in it.
+     */
+    private void endWord() {
+        if (wordLength > 0 && pendingDisabled && parenDepth == 0
+                && (isWord("class") || isWord("interface") || isWord("enum") || isWord("record"))) {
+            pendingDisabledType = true;
+        }
+        wordLength = 0;
+    }
+
+    private boolean isWord(String keyword) {
+        if (keyword.length() != wordLength) {
+            return false;
+        }
+        for (int i = 0; i < wordLength; i++) {
+            if (word[i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves the annotations of the declaration that just ended: a test method is counted
+     * as disabled once, whether it is disabled itself, by an enclosing type, or both.
+     */
+    private void endDeclaration() {
+        if (pendingTest && (pendingDisabled || braceDepth >= disabledDepth)) {
+            disabledTests++;
+        }
+        pendingTest = false;
+        pendingDisabled = false;
+        pendingDisabledType = false;
+    }
+
+    private void string(byte b) {
+        if (b == '\\') {
+            state = STRING_ESCAPE;
+        } else if (b == '"' || b == '\n') {
+            state = CODE;
+        }
+    }
+
+    private void appendName(byte b) {
+        if (nameLength < MAX_NAME_LENGTH) {
+            name[nameLength] = b;
+        }
+        nameLength++;
+    }
+
+    private void endAnnotation() {
+        if (nameLength > MAX_NAME_LENGTH) {
+            return;
+        }
+        int start = segmentStart;
+        int length = nameLength - start;
+        if (matches("Test", start, length)) {
+            testMethods++;
+            pendingTest = true;
+        } else if (matches("ParameterizedTest", start, length)) {
+            testMethods++;
+            parameterizedTests++;
+            pendingTest = true;
+        } else if (matches("RepeatedTest", start, length)
+                || matches("TestFactory", start, length)
+                || matches("TestTemplate", start, length)) {
+            testMethods++;
+            pendingTest = true;
+        } else if (matches("Disabled", start, length) || matches("Ignore", start, length)) {
+            pendingDisabled = true;
+        }
+    }
+
+    private boolean matches(String expected, int start, int length) {
+        if (expected.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name[start + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static boolean isIdentifierPart(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9')
+            || b == '_' || b == '$' || b < 0;
+    }
+}
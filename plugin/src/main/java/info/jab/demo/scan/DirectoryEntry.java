@@ -0,0 +1,78 @@
+package info.jab.demo.scan;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of a single directory as seen by the scanner: its modification time,
+ * the names of its sub-directories and the test files it directly contains.
+ *
+ * A directory's modification time only changes when entries are added, removed or
+ * renamed, which is exactly what affects name-based test counting. Method counts
+ * depend on file contents and are validated per file instead.
+ */
+public final class DirectoryEntry {
+    private final long lastModified;
+    private final List<String> subdirectories;
+    private final Map<String, TestFile> testFiles;
+
+    public DirectoryEntry(long lastModified, List<String> subdirectories, Map<String, TestFile> testFiles) {
+        this.lastModified = lastModified;
+        this.subdirectories = Collections.unmodifiableList(subdirectories);
+        this.testFiles = Collections.unmodifiableMap(testFiles);
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public List<String> getSubdirectories() {
+        return subdirectories;
+    }
+
+    public Map<String, TestFile> getTestFiles() {
+        return testFiles;
+    }
+
+    /**
+     * Counts the test files directly contained in this directory.
+     *
+     * @return the counts for this directory only, excluding sub-directories
+     */
+    public TestCountResult getCounts() {
+        return getCounts(true);
+    }
+
+    /**
+     * Counts the test files directly contained in this directory.
+     *
+     * @param includeMethods whether to sum the recorded method counts of the files
+     * @return the counts for this directory only, excluding sub-directories
+     */
+    public TestCountResult getCounts(boolean includeMethods) {
+        int unit = 0;
+        int integration = 0;
+        int e2e = 0;
+        TestMethodCounts methods = TestMethodCounts.EMPTY;
+        for (TestFile testFile : testFiles.values()) {
+            switch (testFile.getKind()) {
+                case UNIT:
+                    unit++;
+                    break;
+                case INTEGRATION:
+                    integration++;
+                    break;
+                case E2E:
+                    e2e++;
+                    break;
+                default:
+                    break;
+            }
+            if (includeMethods && testFile.getMethodCounts() != null) {
+                methods = methods.plus(testFile.getMethodCounts());
+            }
+        }
+        return new TestCountResult(unit, integration, e2e, methods);
+    }
+}
@@ -0,0 +1,130 @@
+package info.jab.demo.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Include and exclude filter using Maven-style glob patterns relative to a scanned root.
+ *
+ * Patterns use {@code /} as separator: {@code *} matches within a path segment,
+ * {@code **} matches any number of segments and {@code ?} matches a single character.
+ * An exclude pattern that matches a directory prunes the whole sub-tree, so patterns
+ * such as {@code **}{@code /fixtures/**} keep large data directories from being walked.
+ */
+public final class PathFilter {
+    public static final List<String> DEFAULT_INCLUDES = List.of("**/*.java");
+
+    private final List<String> includes;
+    private final List<String> excludes;
+    private final List<Pattern> includePatterns;
+    private final List<Pattern> excludePatterns;
+
+    /**
+     * Creates a filter.
+     *
+     * @param includes the include patterns; null or empty uses {@link #DEFAULT_INCLUDES}
+     * @param excludes the exclude patterns; may be null
+     */
+    public PathFilter(List<String> includes, List<String> excludes) {
+        this.includes = includes == null || includes.isEmpty() ? DEFAULT_INCLUDES : List.copyOf(includes);
+        this.excludes = excludes == null ? Collections.emptyList() : List.copyOf(excludes);
+        this.includePatterns = compile(this.includes);
+        this.excludePatterns = compile(this.excludes);
+    }
+
+    /**
+     * Returns a filter that includes every Java source.
+     *
+     * @return the default filter
+     */
+    public static PathFilter defaults() {
+        return new PathFilter(null, null);
+    }
+
+    /**
+     * Tells whether a file should be considered.
+     *
+     * @param relativePath the file path relative to the scanned root, using {@code /}
+     * @return true if the file matches an include and no exclude
+     */
+    public boolean includesFile(String relativePath) {
+        return matchesAny(includePatterns, relativePath) && !matchesAny(excludePatterns, relativePath);
+    }
+
+    /**
+     * Tells whether a directory and everything below it should be skipped.
+     *
+     * @param relativePath the directory path relative to the scanned root, using {@code /}
+     * @return true if an exclude pattern matches the directory
+     */
+    public boolean excludesDirectory(String relativePath) {
+        return matchesAny(excludePatterns, relativePath);
+    }
+
+    /**
+     * Returns a stable description of the patterns, used to invalidate scan indexes
+     * written with a different configuration.
+     *
+     * @return the filter description
+     */
+    public String describe() {
+        return "includes=" + String.join(",", includes) + ";excludes=" + String.join(",", excludes);
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String path) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Pattern> compile(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<>(globs.size());
+        for (String glob : globs) {
+            patterns.add(Pattern.compile(toRegex(glob.trim().replace('\\', '/'))));
+        }
+        return patterns;
+    }
+
+    static String toRegex(String glob) {
+        StringBuilder regex = new StringBuilder();
+        int i = 0;
+        while (i < glob.length()) {
+            char c = glob.charAt(i);
+            if (c == '*' && glob.startsWith("**", i)) {
+                boolean leading = i == 0 || glob.charAt(i - 1) == '/';
+                boolean trailingSlash = glob.startsWith("**/", i);
+                if (leading && trailingSlash) {
+                    // "**/" matches zero or more leading directories
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else if (leading && i + 2 == glob.length() && i > 0) {
+                    // "/**" at the end also matches the directory itself
+                    regex.setLength(regex.length() - 1);
+                    regex.append("(?:/.*)?");
+                    i += 2;
+                } else {
+                    regex.append(".*");
+                    i += 2;
+                }
+            } else if (c == '*') {
+                regex.append("[^/]*");
+                i++;
+            } else if (c == '?') {
+                regex.append("[^/]");
+                i++;
+            } else {
+                if ("\\.[]{}()+-^$|".indexOf(c) >= 0) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+                i++;
+            }
+        }
+        return regex.toString();
+    }
+}
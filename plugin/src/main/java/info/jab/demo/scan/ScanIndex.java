@@ -0,0 +1,275 @@
+package info.jab.demo.scan;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent per-directory fingerprint index used for incremental scans.
+ *
+ * The index is a plain text file with one {@code D} line per directory followed by
+ * its {@code S} (sub-directory) and test file lines. A test file line holds the size,
+ * modification time and, when the file was inspected, the method counts of the file,
+ * with {@code -1} standing for counts that were never computed. Entries whose modification time
+ * is too close to the moment the index was written are never trusted, because a
+ * change made within the file system's timestamp granularity would go unnoticed.
+ */
+public final class ScanIndex {
+    static final String HEADER = "# POT scan index";
+    static final int VERSION = 4;
+
+    /**
+     * Safety margin for file systems with coarse modification time resolution.
+     */
+    private static final long RACY_MARGIN_MS = 2000;
+
+    private final long timestamp;
+    private final String configuration;
+    private final Map<Path, DirectoryEntry> entries = new ConcurrentHashMap<>();
+
+    private ScanIndex(long timestamp, String configuration) {
+        this.timestamp = timestamp;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Creates an empty index stamped with the current time.
+     *
+     * @return a new empty index
+     */
+    public static ScanIndex empty() {
+        return empty("");
+    }
+
+    /**
+     * Creates an empty index stamped with the current time for a scanner configuration.
+     *
+     * @param configuration description of the settings that affect the indexed entries
+     * @return a new empty index
+     */
+    public static ScanIndex empty(String configuration) {
+        return new ScanIndex(System.currentTimeMillis(), configuration);
+    }
+
+    /**
+     * Loads an index from disk.
+     *
+     * @param file the index file
+     * @return the loaded index, or an empty one if the file does not exist
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static ScanIndex load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new ScanIndex(0, "");
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                throw new IOException("Not a scan index: " + file);
+            }
+            int version = Integer.parseInt(readProperty(reader, "version"));
+            if (version != VERSION) {
+                throw new IOException("Unsupported scan index version " + version + ": " + file);
+            }
+            long timestamp = Long.parseLong(readProperty(reader, "timestamp"));
+            ScanIndex index = new ScanIndex(timestamp, readProperty(reader, "configuration"));
+
+            Path directory = null;
+            long lastModified = 0;
+            List<String> subdirectories = new ArrayList<>();
+            Map<String, TestFile> testFiles = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() < 3 || line.charAt(1) != '\t') {
+                    throw new IOException("Malformed scan index line: " + line);
+                }
+                char type = line.charAt(0);
+                String value = line.substring(2);
+                if (type == 'D') {
+                    if (directory != null) {
+                        index.put(directory, new DirectoryEntry(lastModified, subdirectories, testFiles));
+                    }
+                    int separator = value.indexOf('\t');
+                    if (separator < 0) {
+                        throw new IOException("Malformed scan index line: " + line);
+                    }
+                    lastModified = Long.parseLong(value.substring(0, separator));
+                    directory = Paths.get(value.substring(separator + 1));
+                    subdirectories = new ArrayList<>();
+                    testFiles = new LinkedHashMap<>();
+                } else if (directory == null) {
+                    throw new IOException("Scan index entry outside of a directory: " + line);
+                } else if (type == 'S') {
+                    subdirectories.add(value);
+                } else {
+                    TestKind kind = TestKind.fromCode(type);
+                    if (kind == null) {
+                        throw new IOException("Unknown scan index entry type: " + line);
+                    }
+                    String[] fields = value.split("\t", 6);
+                    if (fields.length != 6) {
+                        throw new IOException("Malformed scan index line: " + line);
+                    }
+                    int tests = Integer.parseInt(fields[2]);
+                    TestMethodCounts methodCounts = tests < 0 ? null : new TestMethodCounts(
+                        tests, Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+                    testFiles.put(fields[5], new TestFile(kind, Long.parseLong(fields[0]),
+                        Long.parseLong(fields[1]), methodCounts));
+                }
+            }
+            if (directory != null) {
+                index.put(directory, new DirectoryEntry(lastModified, subdirectories, testFiles));
+            }
+            return index;
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed scan index: " + file, e);
+        }
+    }
+
+    private static String readProperty(BufferedReader reader, String key) throws IOException {
+        String line = reader.readLine();
+        if (line == null || !line.startsWith(key + "=")) {
+            throw new IOException("Missing scan index property: " + key);
+        }
+        return line.substring(key.length() + 1);
+    }
+
+    /**
+     * Writes the index to disk, replacing any previous file atomically where supported.
+     *
+     * @param file the index file
+     * @throws IOException if the index cannot be written
+     */
+    public void save(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // A unique temporary file, so that concurrent saves never write into each other
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            write(temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void write(Path temp) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            writer.write("version=" + VERSION);
+            writer.newLine();
+            writer.write("timestamp=" + timestamp);
+            writer.newLine();
+            writer.write("configuration=" + configuration);
+            writer.newLine();
+            for (Map.Entry<Path, DirectoryEntry> entry : new TreeMap<>(entries).entrySet()) {
+                DirectoryEntry directory = entry.getValue();
+                writer.write("D\t" + directory.getLastModified() + "\t" + entry.getKey());
+                writer.newLine();
+                for (String subdirectory : directory.getSubdirectories()) {
+                    writer.write("S\t" + subdirectory);
+                    writer.newLine();
+                }
+                for (Map.Entry<String, TestFile> entryFile : directory.getTestFiles().entrySet()) {
+                    TestFile testFile = entryFile.getValue();
+                    TestMethodCounts methodCounts = testFile.getMethodCounts();
+                    writer.write(testFile.getKind().getCode() + "\t" + testFile.getSize()
+                        + "\t" + testFile.getLastModified()
+                        + "\t" + (methodCounts == null ? -1 : methodCounts.getTestMethodCount())
+                        + "\t" + (methodCounts == null ? -1 : methodCounts.getParameterizedTestCount())
+                        + "\t" + (methodCounts == null ? -1 : methodCounts.getDisabledTestCount())
+                        + "\t" + entryFile.getKey());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached entry for a directory if it can still be trusted.
+     *
+     * @param directory    the directory
+     * @param lastModified the directory's current modification time in milliseconds
+     * @return the cached entry, or null if the directory must be rescanned
+     */
+    public DirectoryEntry lookup(Path directory, long lastModified) {
+        DirectoryEntry entry = entries.get(directory);
+        if (entry == null || entry.getLastModified() != lastModified) {
+            return null;
+        }
+        return isTrusted(lastModified) ? entry : null;
+    }
+
+    /**
+     * Tells whether a modification time is old enough, relative to when this index was
+     * written, for an unchanged value to prove that nothing changed.
+     *
+     * @param lastModified the modification time in milliseconds
+     * @return true if entries with this modification time can be reused
+     */
+    public boolean isTrusted(long lastModified) {
+        return lastModified + RACY_MARGIN_MS < timestamp;
+    }
+
+    /**
+     * Copies the entries of another index that lie below a root, typically for a root
+     * whose result was reused without scanning it again.
+     *
+     * @param other the index to copy from
+     * @param root  the root whose entries are copied
+     */
+    public void copyFrom(ScanIndex other, Path root) {
+        for (Map.Entry<Path, DirectoryEntry> entry : other.entries.entrySet()) {
+            if (entry.getKey().startsWith(root)) {
+                entries.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the entry recorded for a directory without validating it.
+     *
+     * @param directory the directory
+     * @return the entry, or null if the directory is not indexed
+     */
+    public DirectoryEntry get(Path directory) {
+        return entries.get(directory);
+    }
+
+    public void put(Path directory, DirectoryEntry entry) {
+        entries.put(directory, entry);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the description of the scanner settings this index was written with.
+     *
+     * @return the configuration, empty if unknown
+     */
+    public String getConfiguration() {
+        return configuration;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,42 @@
+package info.jab.demo.scan;
+
+import java.nio.file.Path;
+
+/**
+ * Callback notified for every test file and directory the scanner accounts for.
+ * Listeners used with a parallel scanner are called from several threads at once.
+ */
+@FunctionalInterface
+public interface ScanListener {
+    ScanListener NONE = (file, kind) -> { };
+
+    /**
+     * Called once per test file, whether it was read from disk or from the scan index.
+     *
+     * @param file the test file
+     * @param kind the kind of test
+     */
+    void testFileFound(Path file, TestKind kind);
+
+    /**
+     * Called once per test file with its method counts. The default implementation
+     * delegates to {@link #testFileFound(Path, TestKind)}.
+     *
+     * @param file         the test file
+     * @param kind         the kind of test
+     * @param methodCounts the method counts, or null if test sources are not inspected
+     */
+    default void testFileFound(Path file, TestKind kind, TestMethodCounts methodCounts) {
+        testFileFound(file, kind);
+    }
+
+    /**
+     * Called once per directory after all of its sub-directories have been scanned.
+     *
+     * @param directory   the directory
+     * @param counts      the counts of the test files directly inside the directory
+     * @param totalCounts the counts of the whole sub-tree, including the directory itself
+     */
+    default void directoryScanned(Path directory, TestCountResult counts, TestCountResult totalCounts) {
+    }
+}
@@ -0,0 +1,140 @@
+package info.jab.demo.scan;
+
+/**
+ * Outcome of a scan: the test counts plus statistics about how much of the tree
+ * could be served from the scan index.
+ */
+public final class ScanResult {
+    private final TestCountResult counts;
+    private final int cacheHits;
+    private final int rescannedDirectories;
+    private final long elapsedNanos;
+    private final ScanIndex index;
+    private final ScanTimings timings;
+    private final boolean reused;
+
+    public ScanResult(TestCountResult counts, int cacheHits, int rescannedDirectories, long elapsedNanos) {
+        this(counts, cacheHits, rescannedDirectories, elapsedNanos, null);
+    }
+
+    public ScanResult(TestCountResult counts, int cacheHits, int rescannedDirectories, long elapsedNanos,
+            ScanIndex index) {
+        this(counts, cacheHits, rescannedDirectories, elapsedNanos, index, ScanTimings.EMPTY);
+    }
+
+    public ScanResult(TestCountResult counts, int cacheHits, int rescannedDirectories, long elapsedNanos,
+            ScanIndex index, ScanTimings timings) {
+        this(counts, cacheHits, rescannedDirectories, elapsedNanos, index, timings, false);
+    }
+
+    private ScanResult(TestCountResult counts, int cacheHits, int rescannedDirectories, long elapsedNanos,
+            ScanIndex index, ScanTimings timings, boolean reused) {
+        this.counts = counts;
+        this.cacheHits = cacheHits;
+        this.rescannedDirectories = rescannedDirectories;
+        this.elapsedNanos = elapsedNanos;
+        this.index = index;
+        this.timings = timings;
+        this.reused = reused;
+    }
+
+    /**
+     * Returns the index written by the scan that produced this result, which describes
+     * the scanned tree in full.
+     *
+     * @return the index, or null if unknown
+     */
+    public ScanIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns a copy of this result marked as served from the {@link ScanResultCache}.
+     *
+     * @return the reused result
+     */
+    public ScanResult reused() {
+        return new ScanResult(counts, cacheHits, rescannedDirectories, elapsedNanos, index, timings, true);
+    }
+
+    public TestCountResult getCounts() {
+        return counts;
+    }
+
+    /**
+     * Returns the number of directories whose contents were taken from the scan index.
+     *
+     * @return the cache hit count
+     */
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Returns the number of directories that had to be listed on disk.
+     *
+     * @return the rescanned directory count
+     */
+    public int getRescannedDirectories() {
+        return rescannedDirectories;
+    }
+
+    public int getVisitedDirectories() {
+        return cacheHits + rescannedDirectories;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns the time spent in each phase of the scan.
+     *
+     * @return the phase timings
+     */
+    public ScanTimings getTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns the number of files accounted for per second of elapsed scan time.
+     *
+     * @return the throughput
+     */
+    public long getFilesPerSecond() {
+        return timings.getFilesPerSecond(elapsedNanos);
+    }
+
+    /**
+     * Returns the combined result of two scans of different roots. The elapsed times are
+     * added, which only matches the wall-clock time if the scans ran one after the other.
+     *
+     * @param other the result to add
+     * @return the combined result, reused only if both results were reused
+     */
+    public ScanResult plus(ScanResult other) {
+        return new ScanResult(counts.plus(other.counts), cacheHits + other.cacheHits,
+            rescannedDirectories + other.rescannedDirectories, elapsedNanos + other.elapsedNanos,
+            index == other.index ? index : null, timings.plus(other.timings), reused && other.reused);
+    }
+
+    /**
+     * Returns a copy of this result whose elapsed time is the given wall-clock time, for a
+     * result combined with {@link #plus(ScanResult)} from scans that ran concurrently.
+     *
+     * @param wallClockNanos the time from the start of the first scan to the end of the last
+     * @return the result with that elapsed time
+     */
+    public ScanResult withElapsedNanos(long wallClockNanos) {
+        return new ScanResult(counts, cacheHits, rescannedDirectories, wallClockNanos, index, timings, reused);
+    }
+
+    /**
+     * Tells whether this result was computed by an earlier goal execution of the same build.
+     *
+     * @return true if no scan was performed for this result
+     */
+    public boolean isReused() {
+        return reused;
+    }
+}
@@ -0,0 +1,141 @@
+package info.jab.demo.scan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * JVM-wide cache of scan results keyed by the canonical path of the scanned root.
+ *
+ * Entries belong to a generation, normally the current build session, so that a
+ * long-lived JVM never serves results from a previous build. The results of the
+ * {@value #MAX_GENERATIONS} most recently used generations are kept side by side, so
+ * builds running concurrently in one JVM do not evict each other. Concurrent requests
+ * for the same root share a single scan: the first caller walks the tree and the
+ * others wait for its result.
+ */
+public final class ScanResultCache {
+    private static final ScanResultCache SHARED = new ScanResultCache();
+    private static final int MAX_GENERATIONS = 4;
+
+    private final Map<Object, Map<String, CompletableFuture<ScanResult>>> generations =
+        new LinkedHashMap<>(MAX_GENERATIONS * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Map<String, CompletableFuture<ScanResult>>> eldest) {
+                return size() > MAX_GENERATIONS;
+            }
+        };
+
+    ScanResultCache() {
+    }
+
+    /**
+     * Returns the cache shared by all goals running in this JVM.
+     *
+     * @return the shared cache
+     */
+    public static ScanResultCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the result for a root, scanning it only if no result exists for the current generation.
+     *
+     * @param generation identifies the build the result belongs to
+     * @param root       the directory to scan
+     * @param scanner    performs the scan when needed
+     * @return the cached or freshly computed result
+     * @throws IOException if the scan fails
+     */
+    public ScanResult get(Object generation, Path root, Scan scanner) throws IOException {
+        return get(generation, root, "", scanner);
+    }
+
+    /**
+     * Returns the result for a root scanned with particular settings, scanning it only if
+     * no result exists for the current generation.
+     *
+     * @param generation identifies the build the result belongs to
+     * @param root       the directory to scan
+     * @param variant    description of the scanner settings; results are only shared between equal variants
+     * @param scanner    performs the scan when needed
+     * @return the cached or freshly computed result
+     * @throws IOException if the scan fails
+     */
+    public ScanResult get(Object generation, Path root, String variant, Scan scanner) throws IOException {
+        String key = canonical(root) + "\n" + variant;
+        Map<String, CompletableFuture<ScanResult>> current = resultsFor(generation);
+
+        CompletableFuture<ScanResult> created = new CompletableFuture<>();
+        CompletableFuture<ScanResult> existing = current.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing).reused();
+        }
+
+        try {
+            ScanResult result = scanner.scan(root);
+            created.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            current.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public synchronized void clear() {
+        generations.clear();
+    }
+
+    private synchronized Map<String, CompletableFuture<ScanResult>> resultsFor(Object generation) {
+        return generations.computeIfAbsent(generation, key -> new ConcurrentHashMap<>());
+    }
+
+    private static Path canonical(Path root) {
+        try {
+            return root.toRealPath();
+        } catch (IOException e) {
+            return root.toAbsolutePath().normalize();
+        }
+    }
+
+    private static ScanResult await(CompletableFuture<ScanResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a shared scan", e);
+        } catch (CancellationException e) {
+            throw new IOException("Shared scan was cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Shared scan failed", cause);
+        }
+    }
+
+    /**
+     * Scan operation invoked on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Scan {
+        ScanResult scan(Path root) throws IOException;
+    }
+}
@@ -0,0 +1,92 @@
+package info.jab.demo.scan;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent in each phase of a scan, summed over all worker threads.
+ *
+ * The walk phase covers listing directories and reading file attributes, the filter
+ * phase matching names against the include and exclude patterns, the inspect phase
+ * reading test sources when methods are counted, and the report phase notifying the
+ * scan listener, which includes logging and writing report records. With a parallel
+ * scan the phase times add up to more than the elapsed time of the scan.
+ */
+public final class ScanTimings {
+    public static final ScanTimings EMPTY = new ScanTimings(0, 0, 0, 0, 0);
+
+    private final long walkNanos;
+    private final long filterNanos;
+    private final long inspectNanos;
+    private final long reportNanos;
+    private final int visitedFiles;
+
+    public ScanTimings(long walkNanos, long filterNanos, long inspectNanos, long reportNanos, int visitedFiles) {
+        this.walkNanos = walkNanos;
+        this.filterNanos = filterNanos;
+        this.inspectNanos = inspectNanos;
+        this.reportNanos = reportNanos;
+        this.visitedFiles = visitedFiles;
+    }
+
+    public long getWalkNanos() {
+        return walkNanos;
+    }
+
+    public long getFilterNanos() {
+        return filterNanos;
+    }
+
+    public long getInspectNanos() {
+        return inspectNanos;
+    }
+
+    public long getReportNanos() {
+        return reportNanos;
+    }
+
+    /**
+     * Returns the number of files accounted for: the entries listed in rescanned
+     * directories plus the test files taken from the scan index.
+     *
+     * @return the visited file count
+     */
+    public int getVisitedFiles() {
+        return visitedFiles;
+    }
+
+    /**
+     * Returns the visited files per second of the given elapsed time.
+     *
+     * @param elapsedNanos the elapsed time of the scan
+     * @return the throughput, or 0 if no time elapsed
+     */
+    public long getFilesPerSecond(long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : visitedFiles * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * Returns a new instance holding the sum of these timings and the given ones.
+     *
+     * @param other the timings to add
+     * @return the combined timings
+     */
+    public ScanTimings plus(ScanTimings other) {
+        return new ScanTimings(
+            walkNanos + other.walkNanos,
+            filterNanos + other.filterNanos,
+            inspectNanos + other.inspectNanos,
+            reportNanos + other.reportNanos,
+            visitedFiles + other.visitedFiles);
+    }
+
+    @Override
+    public String toString() {
+        return "ScanTimings{" +
+               "walkNanos=" + walkNanos +
+               ", filterNanos=" + filterNanos +
+               ", inspectNanos=" + inspectNanos +
+               ", reportNanos=" + reportNanos +
+               ", visitedFiles=" + visitedFiles +
+               '}';
+    }
+}
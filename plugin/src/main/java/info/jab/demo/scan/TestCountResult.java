@@ -0,0 +1,74 @@
+package info.jab.demo.scan;
+
+/**
+ * Immutable holder for the number of test files, and optionally test methods, found by a scan.
+ */
+public final class TestCountResult {
+    public static final TestCountResult EMPTY = new TestCountResult(0, 0);
+
+    private final int unitTestCount;
+    private final int integrationTestCount;
+    private final int e2eTestCount;
+    private final TestMethodCounts methodCounts;
+
+    public TestCountResult(int unitTestCount, int integrationTestCount) {
+        this(unitTestCount, integrationTestCount, 0, TestMethodCounts.EMPTY);
+    }
+
+    public TestCountResult(int unitTestCount, int integrationTestCount, int e2eTestCount,
+            TestMethodCounts methodCounts) {
+        this.unitTestCount = unitTestCount;
+        this.integrationTestCount = integrationTestCount;
+        this.e2eTestCount = e2eTestCount;
+        this.methodCounts = methodCounts;
+    }
+
+    public int getUnitTestCount() {
+        return unitTestCount;
+    }
+
+    public int getIntegrationTestCount() {
+        return integrationTestCount;
+    }
+
+    public int getE2eTestCount() {
+        return e2eTestCount;
+    }
+
+    public int getTotalCount() {
+        return unitTestCount + integrationTestCount + e2eTestCount;
+    }
+
+    /**
+     * Returns the test method counts; all zero unless test sources were inspected.
+     *
+     * @return the method counts
+     */
+    public TestMethodCounts getMethodCounts() {
+        return methodCounts;
+    }
+
+    /**
+     * Returns a new result holding the sum of this result and the given one.
+     *
+     * @param other the result to add
+     * @return the combined result
+     */
+    public TestCountResult plus(TestCountResult other) {
+        return new TestCountResult(
+            unitTestCount + other.unitTestCount,
+            integrationTestCount + other.integrationTestCount,
+            e2eTestCount + other.e2eTestCount,
+            methodCounts.plus(other.methodCounts));
+    }
+
+    @Override
+    public String toString() {
+        return "TestCountResult{" +
+               "unitTestCount=" + unitTestCount +
+               ", integrationTestCount=" + integrationTestCount +
+               ", e2eTestCount=" + e2eTestCount +
+               ", methodCounts=" + methodCounts +
+               '}';
+    }
+}
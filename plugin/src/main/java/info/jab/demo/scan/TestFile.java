@@ -0,0 +1,59 @@
+package info.jab.demo.scan;
+
+/**
+ * Snapshot of a single test source file: its kind, the size and modification time it
+ * had when it was scanned and, if its contents were inspected, its test method counts.
+ */
+public final class TestFile {
+    private final TestKind kind;
+    private final long size;
+    private final long lastModified;
+    private final TestMethodCounts methodCounts;
+
+    /**
+     * Creates a test file snapshot.
+     *
+     * @param kind         the kind of test
+     * @param size         the file size in bytes
+     * @param lastModified the modification time in milliseconds
+     * @param methodCounts the inspected method counts, or null if the contents were not read
+     */
+    public TestFile(TestKind kind, long size, long lastModified, TestMethodCounts methodCounts) {
+        this.kind = kind;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.methodCounts = methodCounts;
+    }
+
+    public TestKind getKind() {
+        return kind;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the inspected method counts.
+     *
+     * @return the counts, or null if the contents were not inspected
+     */
+    public TestMethodCounts getMethodCounts() {
+        return methodCounts;
+    }
+
+    /**
+     * Tells whether this snapshot still describes a file with the given attributes.
+     *
+     * @param size         the current size
+     * @param lastModified the current modification time in milliseconds
+     * @return true if neither attribute changed
+     */
+    public boolean matches(long size, long lastModified) {
+        return this.size == size && this.lastModified == lastModified;
+    }
+}
@@ -0,0 +1,66 @@
+package info.jab.demo.scan;
+
+/**
+ * Kinds of test source files recognised by the scanner, based on the file name suffix.
+ */
+public enum TestKind {
+    UNIT('U', "Test.java"),
+    INTEGRATION('I', "IT.java"),
+    E2E('E', "E2E.java");
+
+    private final char code;
+    private final String suffix;
+
+    TestKind(char code, String suffix) {
+        this.code = code;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Returns the single character used to store this kind in the scan index.
+     *
+     * @return the index code
+     */
+    public char getCode() {
+        return code;
+    }
+
+    /**
+     * Returns the file name suffix that identifies this kind.
+     *
+     * @return the suffix, e.g. {@code Test.java}
+     */
+    public String getSuffix() {
+        return suffix;
+    }
+
+    /**
+     * Classifies a file by its name.
+     *
+     * @param fileName the file name without any directory part
+     * @return the matching kind, or null if the file is not a test source
+     */
+    public static TestKind classify(String fileName) {
+        for (TestKind kind : values()) {
+            if (fileName.endsWith(kind.suffix)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up a kind by its index code.
+     *
+     * @param code the index code
+     * @return the matching kind, or null if the code is unknown
+     */
+    public static TestKind fromCode(char code) {
+        for (TestKind kind : values()) {
+            if (kind.code == code) {
+                return kind;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+package info.jab.demo.scan;
+
+/**
+ * Immutable holder for the number of test methods found by inspecting test sources.
+ */
+public final class TestMethodCounts {
+    public static final TestMethodCounts EMPTY = new TestMethodCounts(0, 0, 0);
+
+    private final int testMethodCount;
+    private final int parameterizedTestCount;
+    private final int disabledTestCount;
+
+    public TestMethodCounts(int testMethodCount, int parameterizedTestCount, int disabledTestCount) {
+        this.testMethodCount = testMethodCount;
+        this.parameterizedTestCount = parameterizedTestCount;
+        this.disabledTestCount = disabledTestCount;
+    }
+
+    /**
+     * Returns the number of test methods, including parameterized, repeated and dynamic tests.
+     *
+     * @return the test method count
+     */
+    public int getTestMethodCount() {
+        return testMethodCount;
+    }
+
+    public int getParameterizedTestCount() {
+        return parameterizedTestCount;
+    }
+
+    /**
+     * Returns the number of test methods disabled with {@code @Disabled} or {@code @Ignore},
+     * on the method itself or on a type that declares it.
+     *
+     * @return the disabled test count
+     */
+    public int getDisabledTestCount() {
+        return disabledTestCount;
+    }
+
+    /**
+     * Returns a new result holding the sum of these counts and the given ones.
+     *
+     * @param other the counts to add
+     * @return the combined counts
+     */
+    public TestMethodCounts plus(TestMethodCounts other) {
+        return new TestMethodCounts(
+            testMethodCount + other.testMethodCount,
+            parameterizedTestCount + other.parameterizedTestCount,
+            disabledTestCount + other.disabledTestCount);
+    }
+
+    @Override
+    public String toString() {
+        return "TestMethodCounts{" +
+               "testMethodCount=" + testMethodCount +
+               ", parameterizedTestCount=" + parameterizedTestCount +
+               ", disabledTestCount=" + disabledTestCount +
+               '}';
+    }
+}
@@ -0,0 +1,380 @@
+package info.jab.demo.scan;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts test source files below a directory, reusing the previous {@link ScanIndex}
+ * for every directory whose modification time has not changed since the last scan.
+ *
+ * Unchanged directories are still visited so that changes deeper in the tree are
+ * detected, but their entries are not listed again.
+ *
+ * With a parallelism greater than one every sub-directory becomes a fork-join task.
+ * Each task keeps its own counts, which are merged as the tasks are joined, so the
+ * listener is the only piece of shared state and must be thread-safe. Phase timings are
+ * collected the same way, so measuring them needs no synchronization.
+ */
+public class TestScanner {
+    private final ScanIndex previousIndex;
+    private final ScanIndex index;
+    private final PathFilter filter;
+    private final ScanListener listener;
+    private final int parallelism;
+    private final TestSourceInspector inspector;
+
+    /**
+     * Creates a sequential scanner.
+     *
+     * @param previousIndex the index of the previous scan, or an empty index
+     * @param listener      callback notified for every test file found
+     */
+    public TestScanner(ScanIndex previousIndex, ScanListener listener) {
+        this(previousIndex, listener, 1);
+    }
+
+    /**
+     * Creates a scanner.
+     *
+     * @param previousIndex the index of the previous scan, or an empty index
+     * @param listener      callback notified for every test file found
+     * @param parallelism   number of worker threads; 1 scans on the calling thread,
+     *                      0 or less uses one worker per available processor
+     */
+    public TestScanner(ScanIndex previousIndex, ScanListener listener, int parallelism) {
+        this(previousIndex, PathFilter.defaults(), listener, parallelism);
+    }
+
+    /**
+     * Creates a scanner.
+     *
+     * @param previousIndex the index of the previous scan, or an empty index; it is ignored
+     *                      if it was written with a different filter
+     * @param filter        include and exclude patterns applied below each scanned root
+     * @param listener      callback notified for every test file found
+     * @param parallelism   number of worker threads; 1 scans on the calling thread,
+     *                      0 or less uses one worker per available processor
+     */
+    public TestScanner(ScanIndex previousIndex, PathFilter filter, ScanListener listener, int parallelism) {
+        this(previousIndex, filter, listener, parallelism, null);
+    }
+
+    /**
+     * Creates a scanner that optionally inspects the contents of every test file.
+     *
+     * @param previousIndex the index of the previous scan, or an empty index; it is ignored
+     *                      if it was written with a different filter
+     * @param filter        include and exclude patterns applied below each scanned root
+     * @param listener      callback notified for every test file found
+     * @param parallelism   number of worker threads; 1 scans on the calling thread,
+     *                      0 or less uses one worker per available processor
+     * @param inspector     counts the test methods of each test file, or null to count files only
+     */
+    public TestScanner(ScanIndex previousIndex, PathFilter filter, ScanListener listener, int parallelism,
+            TestSourceInspector inspector) {
+        this.filter = Objects.requireNonNull(filter);
+        this.inspector = inspector;
+        this.index = ScanIndex.empty(filter.describe());
+        // Entries recorded under different patterns cannot be trusted
+        this.previousIndex = index.getConfiguration().equals(previousIndex.getConfiguration())
+            ? previousIndex : ScanIndex.empty(index.getConfiguration());
+        this.listener = Objects.requireNonNull(listener);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Scans the given root directory.
+     *
+     * @param root the directory to scan
+     * @return the counts and cache statistics for this root
+     * @throws IOException if the tree cannot be read
+     */
+    public ScanResult scan(Path root) throws IOException {
+        long start = System.nanoTime();
+        if (!Files.isDirectory(root)) {
+            return new ScanResult(TestCountResult.EMPTY, 0, 0, System.nanoTime() - start);
+        }
+
+        Totals totals;
+        try {
+            if (parallelism == 1) {
+                totals = scanDirectory(root, root, false);
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    totals = pool.invoke(new DirectoryTask(root, root));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new ScanResult(totals.counts, totals.cacheHits, totals.rescannedDirectories,
+            System.nanoTime() - start, index, totals.timings());
+    }
+
+    /**
+     * Returns the index describing everything scanned so far, to be saved for the next build.
+     *
+     * @return the updated index
+     */
+    public ScanIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Records the entries of a root whose result was reused from an earlier scan of the same
+     * build instead of scanning it again, so the saved index describes that root as the
+     * reused scan left it.
+     *
+     * @param result the reused result
+     * @param root   the root the result belongs to
+     */
+    public void adopt(ScanResult result, Path root) {
+        index.copyFrom(result.getIndex() != null ? result.getIndex() : previousIndex, root);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    private Totals scanDirectory(Path root, Path directory, boolean fork) {
+        Totals totals = new Totals();
+        long walkStart = System.nanoTime();
+        long lastModified;
+        try {
+            lastModified = Files.getLastModifiedTime(directory).toMillis();
+        } catch (NoSuchFileException e) {
+            // Removed while scanning; its parent will be rescanned next time
+            return totals;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        DirectoryEntry entry = previousIndex.lookup(directory, lastModified);
+        if (entry != null) {
+            totals.cacheHits++;
+            totals.visitedFiles += entry.getTestFiles().size();
+            if (inspector != null) {
+                entry = revalidateFiles(directory, entry, totals);
+            }
+        } else {
+            totals.rescannedDirectories++;
+            entry = listDirectory(root, directory, lastModified, totals);
+        }
+        index.put(directory, entry);
+        // Filtering and inspection are timed separately inside the walk
+        totals.walkNanos += System.nanoTime() - walkStart - totals.filterNanos - totals.inspectNanos;
+
+        long reportStart = System.nanoTime();
+        notifyTestFiles(directory, entry, inspector != null, listener);
+        totals.reportNanos += System.nanoTime() - reportStart;
+        TestCountResult counts = entry.getCounts(inspector != null);
+        totals.counts = counts;
+
+        if (fork) {
+            List<DirectoryTask> tasks = new ArrayList<>(entry.getSubdirectories().size());
+            for (String subdirectory : entry.getSubdirectories()) {
+                DirectoryTask task = new DirectoryTask(root, directory.resolve(subdirectory));
+                task.fork();
+                tasks.add(task);
+            }
+            for (DirectoryTask task : tasks) {
+                totals.add(task.join());
+            }
+        } else {
+            for (String subdirectory : entry.getSubdirectories()) {
+                totals.add(scanDirectory(root, directory.resolve(subdirectory), false));
+            }
+        }
+        reportStart = System.nanoTime();
+        listener.directoryScanned(directory, counts, totals.counts);
+        totals.reportNanos += System.nanoTime() - reportStart;
+        return totals;
+    }
+
+    /**
+     * Notifies a listener about a tree recorded in an index, in the same way a scan
+     * would, without touching the file system. Used to report on results that were
+     * reused from an earlier scan.
+     *
+     * @param index          the index written by the earlier scan
+     * @param root           the root that was scanned
+     * @param includeMethods whether the earlier scan inspected test sources
+     * @param listener       the listener to notify
+     * @return the counts of the whole tree
+     */
+    public static TestCountResult replay(ScanIndex index, Path root, boolean includeMethods, ScanListener listener) {
+        DirectoryEntry entry = index.get(root);
+        if (entry == null) {
+            return TestCountResult.EMPTY;
+        }
+        notifyTestFiles(root, entry, includeMethods, listener);
+        TestCountResult counts = entry.getCounts(includeMethods);
+        TestCountResult totalCounts = counts;
+        for (String subdirectory : entry.getSubdirectories()) {
+            totalCounts = totalCounts.plus(replay(index, root.resolve(subdirectory), includeMethods, listener));
+        }
+        listener.directoryScanned(root, counts, totalCounts);
+        return totalCounts;
+    }
+
+    private static void notifyTestFiles(Path directory, DirectoryEntry entry, boolean includeMethods,
+            ScanListener listener) {
+        for (Map.Entry<String, TestFile> testFile : entry.getTestFiles().entrySet()) {
+            TestFile file = testFile.getValue();
+            listener.testFileFound(directory.resolve(testFile.getKey()), file.getKind(),
+                includeMethods ? file.getMethodCounts() : null);
+        }
+    }
+
+    private DirectoryEntry listDirectory(Path root, Path directory, long lastModified, Totals totals) {
+        List<String> subdirectories = new ArrayList<>();
+        Map<String, TestFile> testFiles = new LinkedHashMap<>();
+
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(directory)) {
+            for (Path child : children) {
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(child, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                String name = child.getFileName().toString();
+                if (attributes.isDirectory()) {
+                    long filterStart = System.nanoTime();
+                    boolean excluded = filter.excludesDirectory(relativePath(root, child));
+                    totals.filterNanos += System.nanoTime() - filterStart;
+                    if (!excluded) {
+                        subdirectories.add(name);
+                    }
+                } else {
+                    totals.visitedFiles++;
+                    long filterStart = System.nanoTime();
+                    TestKind kind = TestKind.classify(name);
+                    boolean included = kind != null && filter.includesFile(relativePath(root, child));
+                    totals.filterNanos += System.nanoTime() - filterStart;
+                    if (!included) {
+                        continue;
+                    }
+                    if (attributes.isSymbolicLink() && Files.isRegularFile(child)) {
+                        attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    }
+                    if (attributes.isRegularFile()) {
+                        testFiles.put(name, snapshot(child, kind, attributes, totals));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new DirectoryEntry(lastModified, subdirectories, testFiles);
+    }
+
+    /**
+     * Re-inspects the test files of an unchanged directory whose contents may have changed.
+     */
+    private DirectoryEntry revalidateFiles(Path directory, DirectoryEntry entry, Totals totals) {
+        Map<String, TestFile> testFiles = new LinkedHashMap<>(entry.getTestFiles());
+        boolean changed = false;
+        for (Map.Entry<String, TestFile> testFile : entry.getTestFiles().entrySet()) {
+            Path file = directory.resolve(testFile.getKey());
+            TestFile previous = testFile.getValue();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (NoSuchFileException e) {
+                continue;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (previous.getMethodCounts() == null || !previous.matches(attributes.size(), lastModified)
+                    || !previousIndex.isTrusted(lastModified)) {
+                testFiles.put(testFile.getKey(), snapshot(file, previous.getKind(), attributes, totals));
+                changed = true;
+            }
+        }
+        return changed ? new DirectoryEntry(entry.getLastModified(), entry.getSubdirectories(), testFiles) : entry;
+    }
+
+    private TestFile snapshot(Path file, TestKind kind, BasicFileAttributes attributes, Totals totals) {
+        TestMethodCounts methodCounts = null;
+        if (inspector != null) {
+            long inspectStart = System.nanoTime();
+            try {
+                methodCounts = inspector.inspect(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                totals.inspectNanos += System.nanoTime() - inspectStart;
+            }
+        }
+        return new TestFile(kind, attributes.size(), attributes.lastModifiedTime().toMillis(), methodCounts);
+    }
+
+    private static String relativePath(Path root, Path path) {
+        String relative = root.relativize(path).toString();
+        return File.separatorChar == '/' ? relative : relative.replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Counts and timings accumulated by a single directory task and its descendants.
+     */
+    private static final class Totals {
+        private TestCountResult counts = TestCountResult.EMPTY;
+        private int cacheHits;
+        private int rescannedDirectories;
+        private int visitedFiles;
+        private long walkNanos;
+        private long filterNanos;
+        private long inspectNanos;
+        private long reportNanos;
+
+        private void add(Totals other) {
+            counts = counts.plus(other.counts);
+            cacheHits += other.cacheHits;
+            rescannedDirectories += other.rescannedDirectories;
+            visitedFiles += other.visitedFiles;
+            walkNanos += other.walkNanos;
+            filterNanos += other.filterNanos;
+            inspectNanos += other.inspectNanos;
+            reportNanos += other.reportNanos;
+        }
+
+        private ScanTimings timings() {
+            return new ScanTimings(walkNanos, filterNanos, inspectNanos, reportNanos, visitedFiles);
+        }
+    }
+
+    private final class DirectoryTask extends RecursiveTask<Totals> {
+        private final Path root;
+        private final Path directory;
+
+        private DirectoryTask(Path root, Path directory) {
+            this.root = root;
+            this.directory = directory;
+        }
+
+        @Override
+        protected Totals compute() {
+            return scanDirectory(root, directory, true);
+        }
+    }
+}
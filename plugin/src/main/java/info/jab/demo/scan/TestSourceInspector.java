@@ -0,0 +1,71 @@
+package info.jab.demo.scan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Counts the test methods of a test source file without parsing it or decoding it into strings.
+ *
+ * Files up to the mapping threshold are read into a direct buffer owned by the calling
+ * thread; larger files are memory-mapped and tokenized straight from the page cache.
+ * Either way the bytes never reach the Java heap, so heap usage stays flat regardless of
+ * how many or how large the inspected sources are. Instances are thread-safe.
+ */
+public class TestSourceInspector {
+    /**
+     * Default size above which files are memory-mapped rather than read.
+     */
+    public static final int DEFAULT_MAP_THRESHOLD = 64 * 1024;
+
+    private final int mapThreshold;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    public TestSourceInspector() {
+        this(DEFAULT_MAP_THRESHOLD);
+    }
+
+    /**
+     * Creates an inspector.
+     *
+     * @param mapThreshold files larger than this number of bytes are memory-mapped;
+     *                     it is also the size of the per-thread read buffer
+     */
+    public TestSourceInspector(int mapThreshold) {
+        if (mapThreshold <= 0) {
+            throw new IllegalArgumentException("Map threshold must be positive: " + mapThreshold);
+        }
+        this.mapThreshold = mapThreshold;
+        this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(mapThreshold));
+    }
+
+    /**
+     * Inspects a test source file.
+     *
+     * @param file the file to inspect
+     * @return the test method counts of the file
+     * @throws IOException if the file cannot be read
+     */
+    public TestMethodCounts inspect(Path file) throws IOException {
+        AnnotationTokenizer tokenizer = new AnnotationTokenizer();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > mapThreshold) {
+                tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            } else {
+                ByteBuffer buffer = buffers.get();
+                buffer.clear();
+                // Keep reading in case the file grew since its size was taken
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    tokenizer.feed(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        return tokenizer.finish();
+    }
+}
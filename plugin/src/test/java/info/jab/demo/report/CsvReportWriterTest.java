@@ -0,0 +1,66 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReportWriterTest {
+
+    @Test
+    void testWritesOneRowPerRecord() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        TestCountResult own = new TestCountResult(0, 1, 0, new TestMethodCounts(2, 0, 0));
+        TestCountResult totals = new TestCountResult(2, 1, 1, new TestMethodCounts(7, 1, 1));
+
+        // Act
+        try (CsvReportWriter writer = new CsvReportWriter(out, true)) {
+            writer.writeTestFile("demo", "src/FooIT.java", TestKind.INTEGRATION, new TestMethodCounts(2, 0, 0));
+            writer.writeDirectory("demo", "src", own, totals);
+            writer.writeTotals(totals);
+        }
+
+        // Assert
+        assertEquals(CsvReportWriter.HEADER + "\n"
+            + "file,demo,src/FooIT.java,integration,,,,,2,0,0\n"
+            + "directory,demo,src,,2,1,1,4,7,1,1\n"
+            + "total,,,,2,1,1,4,7,1,1\n", out.toString());
+    }
+
+    @Test
+    void testLeavesMethodColumnsEmptyWhenDisabled() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        try (CsvReportWriter writer = new CsvReportWriter(out, false)) {
+            writer.writeTestFile("demo", "FooTest.java", TestKind.UNIT, new TestMethodCounts(2, 0, 0));
+        }
+
+        // Assert
+        assertTrue(out.toString().endsWith("file,demo,FooTest.java,unit,,,,,,,\n"));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "plain|plain",
+        "a,b|\"a,b\"",
+        "say \"hi\"|\"say \"\"hi\"\"\""
+    })
+    void testQuotesFields(String value, String expected) {
+        StringBuilder row = new StringBuilder();
+
+        CsvReportWriter.appendField(row, value);
+
+        assertEquals(expected, row.toString());
+    }
+}
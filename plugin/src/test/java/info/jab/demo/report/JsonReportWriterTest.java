@@ -0,0 +1,109 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.ScanTimings;
+import info.jab.demo.scan.TestCountResult;
+import info.jab.demo.scan.TestKind;
+import info.jab.demo.scan.TestMethodCounts;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReportWriterTest {
+
+    @Test
+    void testWritesRecordsAndTotals() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        TestCountResult counts = new TestCountResult(1, 0, 0, TestMethodCounts.EMPTY);
+
+        // Act
+        try (JsonReportWriter writer = new JsonReportWriter(out, false)) {
+            writer.writeTestFile("demo", "src/test/java/FooTest.java", TestKind.UNIT, null);
+            writer.writeDirectory("demo", "src/test/java", counts, counts);
+            writer.writeTotals(counts);
+        }
+
+        // Assert
+        String json = out.toString();
+        assertTrue(json.startsWith("{\n  \"format\": \"pot-test-summary\",\n  \"version\": 1,"));
+        assertTrue(json.contains("{\"type\": \"file\", \"module\": \"demo\", "
+            + "\"path\": \"src/test/java/FooTest.java\", \"kind\": \"unit\"},"));
+        assertTrue(json.contains("\"totalCounts\": {\"unit\": 1, \"integration\": 0, \"e2e\": 0, \"total\": 1}}"));
+        assertTrue(json.endsWith("\n  ],\n  \"totals\": {\"unit\": 1, \"integration\": 0, \"e2e\": 0, \"total\": 1}\n}\n"));
+    }
+
+    @Test
+    void testWritesMethodCountsWhenEnabled() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        try (JsonReportWriter writer = new JsonReportWriter(out, true)) {
+            writer.writeTestFile("demo", "FooIT.java", TestKind.INTEGRATION, new TestMethodCounts(3, 1, 2));
+        }
+
+        // Assert
+        assertTrue(out.toString().contains("\"kind\": \"integration\", "
+            + "\"testMethods\": 3, \"parameterizedTests\": 1, \"disabledTests\": 2}"));
+    }
+
+    @Test
+    void testEmptyReportIsValid() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        new JsonReportWriter(out, false).close();
+
+        // Assert
+        assertEquals("{\n  \"format\": \"pot-test-summary\",\n  \"version\": 1,\n  \"records\": []\n}\n",
+            out.toString());
+    }
+
+    @Test
+    void testWritesTimingsAfterTotals() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+        ScanResult result = new ScanResult(TestCountResult.EMPTY, 1, 2, 2_000_000_000L, null,
+            new ScanTimings(10, 20, 30, 40, 500));
+
+        // Act
+        try (JsonReportWriter writer = new JsonReportWriter(out, false)) {
+            writer.writeTotals(result.getCounts());
+            writer.writeTimings(result);
+        }
+
+        // Assert
+        assertTrue(out.toString().endsWith(",\n  \"timings\": {\"elapsedNanos\": 2000000000, \"walkNanos\": 10, "
+            + "\"filterNanos\": 20, \"inspectNanos\": 30, \"reportNanos\": 40, \"visitedFiles\": 500, "
+            + "\"visitedDirectories\": 3, \"filesPerSecond\": 250, \"reused\": false}\n}\n"));
+    }
+
+    @Test
+    void testEscapesStrings() {
+        // Arrange
+        StringBuilder json = new StringBuilder();
+
+        // Act
+        JsonReportWriter.appendString(json, "a\"b\\c\nd\u0001");
+
+        // Assert
+        assertEquals("\"a\\\"b\\\\c\\nd\\u0001\"", json.toString());
+    }
+
+    @Test
+    void testRejectsRecordsAfterTotals() throws IOException {
+        // Arrange
+        JsonReportWriter writer = new JsonReportWriter(new StringWriter(), false);
+        writer.writeTotals(TestCountResult.EMPTY);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+            () -> writer.writeTestFile("demo", "FooTest.java", TestKind.UNIT, null));
+    }
+}
@@ -0,0 +1,83 @@
+package info.jab.demo.report;
+
+import info.jab.demo.scan.PathFilter;
+import info.jab.demo.scan.ScanIndex;
+import info.jab.demo.scan.ScanListener;
+import info.jab.demo.scan.ScanResult;
+import info.jab.demo.scan.TestScanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportListenerTest {
+
+    @TempDir
+    Path basedir;
+
+    @Test
+    void testReportsScannedTreeRelativeToBasedir() throws IOException {
+        // Arrange
+        Path root = Files.createDirectories(basedir.resolve("src/test/java/com/acme"));
+        Files.createFile(root.resolve("FooTest.java"));
+        Files.createFile(root.resolve("BarIT.java"));
+        StringWriter out = new StringWriter();
+
+        // Act
+        try (CsvReportWriter writer = new CsvReportWriter(out, false)) {
+            ReportListener listener = new ReportListener(writer, "demo", basedir, ScanListener.NONE);
+            new TestScanner(ScanIndex.empty(), PathFilter.defaults(), listener, 1)
+                .scan(basedir.resolve("src/test/java"));
+        }
+
+        // Assert
+        String csv = out.toString();
+        assertTrue(csv.contains("file,demo,src/test/java/com/acme/FooTest.java,unit,"));
+        assertTrue(csv.contains("file,demo,src/test/java/com/acme/BarIT.java,integration,"));
+        assertTrue(csv.contains("directory,demo,src/test/java/com/acme,,1,1,0,2,"));
+        assertTrue(csv.contains("directory,demo,src/test/java,,1,1,0,2,"));
+    }
+
+    @Test
+    void testReplayReportsTheSameRecords() throws IOException {
+        // Arrange
+        Path root = Files.createDirectories(basedir.resolve("src/test/java/com/acme"));
+        Files.createFile(root.resolve("FooTest.java"));
+        Path testRoot = basedir.resolve("src/test/java");
+        StringWriter scanned = new StringWriter();
+        StringWriter replayed = new StringWriter();
+        ScanResult result;
+        try (CsvReportWriter writer = new CsvReportWriter(scanned, false)) {
+            result = new TestScanner(ScanIndex.empty(), PathFilter.defaults(),
+                new ReportListener(writer, "demo", basedir, ScanListener.NONE), 1).scan(testRoot);
+        }
+
+        // Act
+        try (CsvReportWriter writer = new CsvReportWriter(replayed, false)) {
+            TestScanner.replay(result.getIndex(), testRoot, false,
+                new ReportListener(writer, "demo", basedir, ScanListener.NONE));
+        }
+
+        // Assert
+        assertEquals(scanned.toString(), replayed.toString());
+    }
+
+    @Test
+    void testKeepsPathsOutsideBasedirAbsolute() throws IOException {
+        // Arrange
+        ReportListener listener = new ReportListener(new CsvReportWriter(new StringWriter(), false), "demo",
+            basedir, ScanListener.NONE);
+        Path outside = Paths.get("/elsewhere/FooTest.java").toAbsolutePath();
+
+        // Act & Assert
+        assertEquals("src/FooTest.java", listener.relativize(basedir.resolve("src/FooTest.java")));
+        assertEquals(outside.toString().replace('\\', '/'), listener.relativize(outside));
+    }
+}
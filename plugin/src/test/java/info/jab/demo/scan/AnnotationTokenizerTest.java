@@ -0,0 +1,102 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnotationTokenizerTest {
+
+    private static final String SOURCE = String.join("\n",
+        "package demo;",
+        "// @Test in a line comment",
+        "/* @Test in a block comment ** */",
+        "@Disabled(\"not yet\")",
+        "class DemoTest {",
+        "    String text = \"@Test in a string \\\" still string @Test\";",
+        "    String block = \"\"\"",
+        "        @Test in a text block \"\" \\\"\"\"",
+        "        \"\"\";",
+        "    char at = '@';",
+        "    char quote = '\"';",
+        "    String empty = \"\";",
+        "    @Test void plain() {}",
+        "    @org.junit.jupiter.api.Test void qualified() {}",
+        "    @ParameterizedTest @ValueSource(ints = {1, 2}) void parameterized(int i) {}",
+        "    @RepeatedTest(3) void repeated() {}",
+        "    @TestFactory Object dynamic() { return null; }",
+        "    @Disabled @Test void skipped() {}",
+        "    @Testing void notATest() {}",
+        "}",
+        "@interface Test {}");
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7, 64, 4096})
+    void testCountsAnnotationsRegardlessOfChunkSize(int chunkSize) {
+        // Arrange
+        byte[] bytes = SOURCE.getBytes(StandardCharsets.UTF_8);
+        AnnotationTokenizer tokenizer = new AnnotationTokenizer();
+
+        // Act
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            tokenizer.feed(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+        TestMethodCounts counts = tokenizer.finish();
+
+        // Assert - the class-level @Disabled disables all six tests, the skipped one only once
+        assertEquals(6, counts.getTestMethodCount());
+        assertEquals(1, counts.getParameterizedTestCount());
+        assertEquals(6, counts.getDisabledTestCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 4096})
+    void testDisabledTypeDisablesItsTestMethods(int chunkSize) {
+        // Arrange
+        String source = String.join("\n",
+            "@ExtendWith(MockitoExtension.class)",
+            "class MixedTest {",
+            "    @Disabled(\"flaky\") @Test void skipped() {}",
+            "    @Test void first() { Runnable r = () -> { }; int[] a = {1, 2}; }",
+            "    @Disabled @ExtendWith(Foo.class) @Test void alsoSkipped() {}",
+            "    @Disabled",
+            "    @Nested",
+            "    class Off {",
+            "        @Test void nested() {}",
+            "        @Nested class Deeper { @ParameterizedTest @ValueSource(ints = {1}) void deeper(int i) {} }",
+            "        @Disabled @Test void twice() {}",
+            "    }",
+            "    @Disabled String reason = \"class {\";",
+            "    @Test void last() {}",
+            "}",
+            "@org.junit.Ignore",
+            "public class LegacyTest {",
+            "    @org.junit.Test public void legacy() {}",
+            "}");
+        byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
+        AnnotationTokenizer tokenizer = new AnnotationTokenizer();
+
+        // Act
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            tokenizer.feed(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+        }
+        TestMethodCounts counts = tokenizer.finish();
+
+        // Assert - skipped, alsoSkipped, the three tests of Off and legacy
+        assertEquals(8, counts.getTestMethodCount());
+        assertEquals(6, counts.getDisabledTestCount());
+    }
+
+    @Test
+    void testAnnotationAtEndOfInput() {
+        AnnotationTokenizer tokenizer = new AnnotationTokenizer();
+        byte[] bytes = "@Test".getBytes(StandardCharsets.UTF_8);
+
+        tokenizer.feed(bytes, 0, bytes.length);
+
+        assertEquals(1, tokenizer.finish().getTestMethodCount());
+    }
+}
@@ -0,0 +1,47 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathFilterTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "**/*.java, FooTest.java, true",
+        "**/*.java, com/acme/FooTest.java, true",
+        "**/*.java, com/acme/FooTest.kt, false",
+        "com/*/FooTest.java, com/acme/FooTest.java, true",
+        "com/*/FooTest.java, com/acme/deep/FooTest.java, false",
+        "**/Foo?est.java, a/FooTest.java, true"
+    })
+    void testIncludes(String include, String path, boolean expected) {
+        PathFilter filter = new PathFilter(List.of(include), null);
+
+        assertEquals(expected, filter.includesFile(path));
+    }
+
+    @Test
+    void testExcludesPruneDirectories() {
+        PathFilter filter = new PathFilter(null, List.of("**/wiremock/**", "fixtures"));
+
+        assertTrue(filter.excludesDirectory("wiremock"));
+        assertTrue(filter.excludesDirectory("com/acme/wiremock"));
+        assertTrue(filter.excludesDirectory("fixtures"));
+        assertFalse(filter.excludesDirectory("com/fixtures"));
+        assertFalse(filter.includesFile("com/acme/wiremock/mappings/FooTest.java"));
+        assertTrue(filter.includesFile("com/acme/FooTest.java"));
+    }
+
+    @Test
+    void testDefaultsIncludeJavaSources() {
+        PathFilter filter = PathFilter.defaults();
+
+        assertTrue(filter.includesFile("a/b/FooIT.java"));
+        assertEquals("includes=**/*.java;excludes=", filter.describe());
+    }
+}
@@ -0,0 +1,111 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws IOException {
+        // Arrange
+        Map<String, TestFile> testFiles = new LinkedHashMap<>();
+        testFiles.put("FooTest.java", new TestFile(TestKind.UNIT, 120L, 900L, new TestMethodCounts(3, 1, 1)));
+        testFiles.put("FooIT.java", new TestFile(TestKind.INTEGRATION, 80L, 950L, null));
+        ScanIndex index = ScanIndex.empty();
+        Path directory = tempDir.resolve("src dir");
+        index.put(directory, new DirectoryEntry(1000L, List.of("child"), testFiles));
+        Path file = tempDir.resolve("index.txt");
+
+        // Act
+        index.save(file);
+        ScanIndex loaded = ScanIndex.load(file);
+
+        // Assert
+        DirectoryEntry entry = loaded.lookup(directory, 1000L);
+        assertNotNull(entry);
+        assertEquals(List.of("child"), entry.getSubdirectories());
+        assertEquals(testFiles.keySet(), entry.getTestFiles().keySet());
+        TestFile unitTest = entry.getTestFiles().get("FooTest.java");
+        assertTrue(unitTest.matches(120L, 900L));
+        assertEquals(3, unitTest.getMethodCounts().getTestMethodCount());
+        assertNull(entry.getTestFiles().get("FooIT.java").getMethodCounts());
+        assertEquals(1, entry.getCounts().getUnitTestCount());
+        assertEquals(1, entry.getCounts().getIntegrationTestCount());
+        assertEquals(1, entry.getCounts().getMethodCounts().getDisabledTestCount());
+    }
+
+    @Test
+    void testConcurrentSavesDoNotInterfere() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("index.txt");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> saves = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 32; i++) {
+                ScanIndex index = ScanIndex.empty();
+                index.put(tempDir.resolve("dir" + i), new DirectoryEntry(1000L + i, List.of(), Map.of()));
+                saves.add(executor.submit(() -> {
+                    index.save(file);
+                    return null;
+                }));
+            }
+            for (Future<?> save : saves) {
+                save.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert - the file is one complete index and no temporary file is left behind
+        assertEquals(1, ScanIndex.load(file).size());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void testLookupRejectsChangedOrRecentDirectories() {
+        ScanIndex index = ScanIndex.empty();
+        Path directory = tempDir.resolve("dir");
+        index.put(directory, new DirectoryEntry(1000L, List.of(), Map.of()));
+        index.put(tempDir, new DirectoryEntry(index.getTimestamp(), List.of(), Map.of()));
+
+        assertNull(index.lookup(directory, 2000L));
+        assertNull(index.lookup(tempDir, index.getTimestamp()));
+        assertNotNull(index.lookup(directory, 1000L));
+    }
+
+    @Test
+    void testLoadMissingFileReturnsEmptyIndex() throws IOException {
+        ScanIndex index = ScanIndex.load(tempDir.resolve("missing.txt"));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testLoadMalformedFileFails() throws IOException {
+        Path file = tempDir.resolve("index.txt");
+        Files.writeString(file, "garbage");
+
+        assertThrows(IOException.class, () -> ScanIndex.load(file));
+    }
+}
@@ -0,0 +1,123 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanResultCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testConcurrentRequestsShareOneScan() throws Exception {
+        // Arrange
+        ScanResultCache cache = new ScanResultCache();
+        AtomicInteger scans = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<ScanResult>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("build-1", root, dir -> {
+                        scans.incrementAndGet();
+                        return new ScanResult(new TestCountResult(3, 1), 0, 1, 0);
+                    });
+                }));
+            }
+            start.countDown();
+
+            // Assert
+            int reused = 0;
+            for (Future<ScanResult> future : futures) {
+                ScanResult result = future.get();
+                assertEquals(4, result.getCounts().getTotalCount());
+                reused += result.isReused() ? 1 : 0;
+            }
+            assertEquals(1, scans.get());
+            assertEquals(7, reused);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNewGenerationScansAgain() throws IOException {
+        ScanResultCache cache = new ScanResultCache();
+        AtomicInteger scans = new AtomicInteger();
+        ScanResultCache.Scan scan = dir -> {
+            scans.incrementAndGet();
+            return new ScanResult(TestCountResult.EMPTY, 0, 1, 0);
+        };
+
+        cache.get("build-1", root, scan);
+        cache.get("build-1", root.resolve("."), scan);
+        cache.get("build-2", root, scan);
+
+        assertEquals(2, scans.get());
+    }
+
+    @Test
+    void testInterleavedGenerationsKeepTheirResults() throws IOException {
+        ScanResultCache cache = new ScanResultCache();
+        AtomicInteger scans = new AtomicInteger();
+        ScanResultCache.Scan scan = dir -> {
+            scans.incrementAndGet();
+            return new ScanResult(TestCountResult.EMPTY, 0, 1, 0);
+        };
+
+        cache.get("build-1", root, scan);
+        cache.get("build-2", root, scan);
+        ScanResult first = cache.get("build-1", root, scan);
+        ScanResult second = cache.get("build-2", root, scan);
+
+        assertEquals(2, scans.get());
+        assertTrue(first.isReused());
+        assertTrue(second.isReused());
+    }
+
+    @Test
+    void testLeastRecentlyUsedGenerationIsEvicted() throws IOException {
+        ScanResultCache cache = new ScanResultCache();
+        AtomicInteger scans = new AtomicInteger();
+        ScanResultCache.Scan scan = dir -> {
+            scans.incrementAndGet();
+            return new ScanResult(TestCountResult.EMPTY, 0, 1, 0);
+        };
+
+        for (int build = 1; build <= 5; build++) {
+            cache.get("build-" + build, root, scan);
+        }
+        cache.get("build-5", root, scan);
+        cache.get("build-1", root, scan);
+
+        assertEquals(6, scans.get());
+    }
+
+    @Test
+    void testFailedScanIsNotCached() throws IOException {
+        ScanResultCache cache = new ScanResultCache();
+
+        assertThrows(IOException.class, () -> cache.get("build-1", root, dir -> {
+            throw new IOException("boom");
+        }));
+        ScanResult result = cache.get("build-1", root, dir -> new ScanResult(TestCountResult.EMPTY, 0, 1, 0));
+
+        assertFalse(result.isReused());
+    }
+}
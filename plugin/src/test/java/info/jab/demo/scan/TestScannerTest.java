@@ -0,0 +1,222 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestScannerTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void testScanCountsTestFilesByName() throws IOException {
+        // Arrange
+        createFile("java/com/acme/FooTest.java");
+        createFile("java/com/acme/BarTest.java");
+        createFile("java/com/acme/it/FooIT.java");
+        createFile("java/com/acme/Helper.java");
+        createFile("resources/data.json");
+
+        // Act
+        ScanResult result = new TestScanner(ScanIndex.empty(), ScanListener.NONE).scan(root);
+
+        // Assert
+        assertEquals(2, result.getCounts().getUnitTestCount());
+        assertEquals(1, result.getCounts().getIntegrationTestCount());
+        assertEquals(0, result.getCacheHits());
+        assertEquals(6, result.getRescannedDirectories());
+    }
+
+    @Test
+    void testParallelScanMatchesSequentialScan() throws IOException {
+        // Arrange
+        for (int i = 0; i < 20; i++) {
+            createFile("java/pkg" + i + "/sub/Case" + i + "Test.java");
+            createFile("java/pkg" + i + "/Case" + i + "IT.java");
+        }
+        List<Path> reported = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        ScanResult sequential = new TestScanner(ScanIndex.empty(), ScanListener.NONE).scan(root);
+        ScanResult parallel = new TestScanner(ScanIndex.empty(), (file, kind) -> reported.add(file), 4).scan(root);
+
+        // Assert
+        assertEquals(20, parallel.getCounts().getUnitTestCount());
+        assertEquals(20, parallel.getCounts().getIntegrationTestCount());
+        assertEquals(sequential.getVisitedDirectories(), parallel.getVisitedDirectories());
+        assertEquals(40, reported.size());
+    }
+
+    @Test
+    void testScanRecordsPhaseTimings() throws IOException {
+        // Arrange
+        createFile("java/com/acme/FooTest.java");
+        createFile("java/com/acme/Helper.java");
+        createFile("java/com/acme/it/FooIT.java");
+        ageDirectories();
+
+        // Act
+        ScanResult first = new TestScanner(ScanIndex.empty(), ScanListener.NONE).scan(root);
+        ScanResult second = new TestScanner(first.getIndex(), ScanListener.NONE).scan(root);
+
+        // Assert
+        assertEquals(3, first.getTimings().getVisitedFiles());
+        assertTrue(first.getTimings().getWalkNanos() > 0);
+        assertTrue(first.getTimings().getFilterNanos() > 0);
+        assertEquals(0, first.getTimings().getInspectNanos());
+        assertTrue(first.getFilesPerSecond() > 0);
+        // Unchanged directories only account for their indexed test files
+        assertEquals(2, second.getTimings().getVisitedFiles());
+        assertEquals(5, first.getTimings().plus(second.getTimings()).getVisitedFiles());
+    }
+
+    @Test
+    void testExcludedDirectoriesAreNotWalked() throws IOException {
+        // Arrange
+        createFile("com/acme/FooTest.java");
+        createFile("com/acme/fixtures/recorded/BarTest.java");
+        PathFilter filter = new PathFilter(null, List.of("**/fixtures/**"));
+
+        // Act
+        ScanResult result = new TestScanner(ScanIndex.empty(), filter, ScanListener.NONE, 1).scan(root);
+
+        // Assert
+        assertEquals(1, result.getCounts().getUnitTestCount());
+        assertEquals(3, result.getVisitedDirectories());
+    }
+
+    @Test
+    void testCountMethodsInspectsChangedFilesOnly() throws IOException {
+        // Arrange
+        createFile("a/ATest.java", "class ATest { @Test void a() {} @Test void b() {} }");
+        createFile("a/AE2E.java", "class AE2E { @ParameterizedTest void a() {} @Disabled @Test void b() {} }");
+        ageDirectories();
+        ageFiles();
+        TestScanner first = new TestScanner(ScanIndex.empty(), PathFilter.defaults(), ScanListener.NONE, 1,
+            new TestSourceInspector());
+        ScanResult firstResult = first.scan(root);
+
+        // Editing a file keeps the directory timestamp but must refresh its method counts
+        createFile("a/ATest.java", "class ATest { @Test void a() {} }");
+        Files.setLastModifiedTime(root.resolve("a"), Files.getLastModifiedTime(root));
+
+        // Act
+        ScanResult second = new TestScanner(first.getIndex(), PathFilter.defaults(), ScanListener.NONE, 1,
+            new TestSourceInspector()).scan(root);
+
+        // Assert
+        assertEquals(4, firstResult.getCounts().getMethodCounts().getTestMethodCount());
+        assertEquals(1, second.getCounts().getUnitTestCount());
+        assertEquals(1, second.getCounts().getE2eTestCount());
+        assertEquals(2, second.getCacheHits());
+        TestMethodCounts methods = second.getCounts().getMethodCounts();
+        assertEquals(3, methods.getTestMethodCount());
+        assertEquals(1, methods.getParameterizedTestCount());
+        assertEquals(1, methods.getDisabledTestCount());
+    }
+
+    @Test
+    void testScanMissingRootIsEmpty() throws IOException {
+        ScanResult result = new TestScanner(ScanIndex.empty(), ScanListener.NONE).scan(root.resolve("missing"));
+
+        assertEquals(0, result.getCounts().getTotalCount());
+        assertEquals(0, result.getVisitedDirectories());
+    }
+
+    @Test
+    void testSecondScanReusesUnchangedDirectories() throws IOException {
+        // Arrange
+        createFile("java/a/ATest.java");
+        createFile("java/b/BTest.java");
+        ageDirectories();
+
+        TestScanner first = new TestScanner(ScanIndex.empty(), ScanListener.NONE);
+        first.scan(root);
+        Path indexFile = root.resolveSibling(root.getFileName() + "-index.txt");
+        first.getIndex().save(indexFile);
+
+        // A new test in one directory only invalidates that directory
+        createFile("java/b/CIT.java");
+
+        // Act
+        List<Path> reported = new ArrayList<>();
+        ScanResult result = new TestScanner(ScanIndex.load(indexFile), (file, kind) -> reported.add(file)).scan(root);
+
+        // Assert
+        assertEquals(2, result.getCounts().getUnitTestCount());
+        assertEquals(1, result.getCounts().getIntegrationTestCount());
+        assertEquals(3, result.getCacheHits());
+        assertEquals(1, result.getRescannedDirectories());
+        assertEquals(3, reported.size());
+        Files.delete(indexFile);
+    }
+
+    @Test
+    void testAdoptedResultIsSavedWithTheIndex() throws IOException {
+        // Arrange
+        createFile("java/a/ATest.java");
+        createFile("java/b/BIT.java");
+        ageDirectories();
+        ScanResult earlier = new TestScanner(ScanIndex.empty(), ScanListener.NONE).scan(root);
+
+        // A later execution of the build reuses that result with an outdated index of its own
+        TestScanner scanner = new TestScanner(ScanIndex.empty(), ScanListener.NONE);
+        scanner.adopt(earlier.reused(), root);
+        Path indexFile = root.resolveSibling(root.getFileName() + "-adopted-index.txt");
+        scanner.getIndex().save(indexFile);
+
+        // Act
+        ScanResult next = new TestScanner(ScanIndex.load(indexFile), ScanListener.NONE).scan(root);
+
+        // Assert
+        assertEquals(4, next.getCacheHits());
+        assertEquals(0, next.getRescannedDirectories());
+        assertEquals(2, next.getCounts().getTotalCount());
+        Files.delete(indexFile);
+    }
+
+    private void createFile(String relativePath) throws IOException {
+        createFile(relativePath, "class X {}");
+    }
+
+    private void createFile(String relativePath, String content) throws IOException {
+        Path file = root.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private void ageFiles() throws IOException {
+        FileTime past = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path)) {
+                    Files.setLastModifiedTime(path, past);
+                }
+            }
+        }
+    }
+
+    private void ageDirectories() throws IOException {
+        FileTime past = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isDirectory(path)) {
+                    Files.setLastModifiedTime(path, past);
+                }
+            }
+        }
+    }
+}
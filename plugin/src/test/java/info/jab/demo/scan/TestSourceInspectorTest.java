@@ -0,0 +1,53 @@
+package info.jab.demo.scan;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestSourceInspectorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMappedAndBufferedReadsAgree() throws IOException {
+        // Arrange
+        StringBuilder source = new StringBuilder("class BigTest {\n");
+        for (int i = 0; i < 500; i++) {
+            source.append("    @Test void test").append(i).append("() { /* @Test */ }\n");
+        }
+        source.append("    @Disabled @ParameterizedTest void last(int i) {}\n}\n");
+        Path file = tempDir.resolve("BigTest.java");
+        Files.writeString(file, source);
+
+        // Act
+        TestMethodCounts buffered = new TestSourceInspector(1024 * 1024).inspect(file);
+        TestMethodCounts mapped = new TestSourceInspector(1024).inspect(file);
+
+        // Assert
+        assertEquals(501, buffered.getTestMethodCount());
+        assertEquals(501, mapped.getTestMethodCount());
+        assertEquals(1, mapped.getParameterizedTestCount());
+        assertEquals(1, mapped.getDisabledTestCount());
+    }
+
+    @Test
+    void testSmallFileIsReadThroughDirectBuffer() throws IOException {
+        Path file = tempDir.resolve("SmallTest.java");
+        Files.writeString(file, "class SmallTest { @Test void a() {} @Test void b() {} }");
+
+        TestMethodCounts counts = new TestSourceInspector(64).inspect(file);
+
+        assertEquals(2, counts.getTestMethodCount());
+    }
+
+    @Test
+    void testInvalidThresholdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new TestSourceInspector(0));
+    }
+}